@@ -3,7 +3,9 @@ package com.denizenscript.denizencore;
 import com.denizenscript.denizencore.events.OldEventManager;
 import com.denizenscript.denizencore.events.ScriptEvent;
 import com.denizenscript.denizencore.events.core.*;
+import com.denizenscript.denizencore.objects.core.ListTag;
 import com.denizenscript.denizencore.scripts.ScriptHelper;
+import com.denizenscript.denizencore.scripts.ScriptPrecompiler;
 import com.denizenscript.denizencore.scripts.ScriptRegistry;
 import com.denizenscript.denizencore.scripts.commands.CommandRegistry;
 import com.denizenscript.denizencore.scripts.queues.ScriptEngine;
@@ -108,6 +110,7 @@ public class DenizenCore {
             OldEventManager.scanWorldEvents();
             ScriptEvent.reload();
             implementation.onScriptReload();
+            ScriptPrecompiler.start();
 
         }
         catch (Exception ex) {
@@ -120,10 +123,26 @@ public class DenizenCore {
      * Call when a script reload is required (EG, requested by user command.)
      */
     public static void reloadScripts() {
-        preloadScripts();
-        postLoadScripts();
-        ReloadScriptsScriptEvent.instance.hadError = ScriptHelper.hadError();
-        ReloadScriptsScriptEvent.instance.fire();
+        reloadScripts(null);
+    }
+
+    /**
+     * Call when a script reload is required due to specific script files changing (EG, detected by the script file watcher).
+     * The changed files are given to the reload script events as context.
+     */
+    public static void reloadScripts(ListTag changedFiles) {
+        PreScriptReloadScriptEvent.instance.changedFiles = changedFiles;
+        ReloadScriptsScriptEvent.instance.changedFiles = changedFiles;
+        try {
+            preloadScripts();
+            postLoadScripts();
+            ReloadScriptsScriptEvent.instance.hadError = ScriptHelper.hadError();
+            ReloadScriptsScriptEvent.instance.fire();
+        }
+        finally {
+            PreScriptReloadScriptEvent.instance.changedFiles = null;
+            ReloadScriptsScriptEvent.instance.changedFiles = null;
+        }
         Debug.log("Scripts reloaded.");
     }
 
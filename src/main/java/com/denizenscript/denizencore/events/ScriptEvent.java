@@ -13,7 +13,9 @@ import com.denizenscript.denizencore.scripts.queues.ScriptQueue;
 import com.denizenscript.denizencore.scripts.queues.core.InstantQueue;
 import com.denizenscript.denizencore.tags.TagContext;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.RegexCache;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import com.denizenscript.denizencore.utilities.YamlPath;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
@@ -51,6 +53,8 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
 
     public static ArrayList<WorldScriptContainer> worldContainers = new ArrayList<>();
 
+    public static final YamlPath ENABLED_PATH = new YamlPath("enabled");
+
     public static ArrayList<ScriptEvent> events = new ArrayList<>();
 
     public static HashMap<String, ScriptEvent> eventLookup = new HashMap<>();
@@ -182,7 +186,7 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
             Debug.log("Reloading script events...");
         }
         for (ScriptContainer container : worldContainers) {
-            if (!container.getContents().getString("enabled", "true").equalsIgnoreCase("true")) {
+            if (!container.getContents().getString(ENABLED_PATH, "true").equalsIgnoreCase("true")) {
                 continue;
             }
             YamlConfiguration config = container.getConfigurationSection("events");
@@ -457,7 +461,7 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
     @Override
     public ObjectTag getContext(String name) {
         if (name.equals("cancelled")) {
-            return new ElementTag(cancelled);
+            return ElementTag.valueOf(cancelled);
         }
         else if (name.equals("event_header")) {
             return new ElementTag(currentEvent);
@@ -559,7 +563,7 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         if (Debug.verbose) {
             Debug.log("Event regex compile: " + output);
         }
-        result = Pattern.compile(output);
+        result = RegexCache.getPattern(output);
         knownPatterns.put(input, result);
         return result;
     }
@@ -97,7 +97,7 @@ public class DeltaTimeScriptEvent extends ScriptEvent {
         if (!enabled) {
             return;
         }
-        second = new ElementTag(DenizenCore.serverTimeMillis / 1000);
+        second = ElementTag.valueOf(DenizenCore.serverTimeMillis / 1000);
         data = DenizenCore.getImplementation().getEmptyScriptEntryData();
         fire();
     }
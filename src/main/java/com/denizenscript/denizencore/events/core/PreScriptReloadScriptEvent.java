@@ -2,6 +2,8 @@ package com.denizenscript.denizencore.events.core;
 
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.events.ScriptEvent;
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.ListTag;
 import com.denizenscript.denizencore.scripts.ScriptEntryData;
 
 public class PreScriptReloadScriptEvent extends ScriptEvent {
@@ -14,15 +16,28 @@ public class PreScriptReloadScriptEvent extends ScriptEvent {
     //
     // @Triggers immediately before Denizen scripts are reloaded.
     //
+    // @Context
+    // <context.changed_files> returns a ListTag of the script files (relative to the scripts folder) whose changes triggered the reload. Only present when the reload was started by the script file watcher.
+    //
     // -->
 
     public static PreScriptReloadScriptEvent instance;
 
+    public ListTag changedFiles = null;
+
     @Override
     public ScriptEntryData getScriptEntryData() {
         return DenizenCore.getImplementation().getEmptyScriptEntryData();
     }
 
+    @Override
+    public ObjectTag getContext(String name) {
+        if (name.equals("changed_files") && changedFiles != null) {
+            return changedFiles;
+        }
+        return super.getContext(name);
+    }
+
     public PreScriptReloadScriptEvent() {
         instance = this;
     }
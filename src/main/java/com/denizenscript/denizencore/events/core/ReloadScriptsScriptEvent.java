@@ -2,6 +2,7 @@ package com.denizenscript.denizencore.events.core;
 
 import com.denizenscript.denizencore.events.ScriptEvent;
 import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.ListTag;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.scripts.ScriptEntryData;
 import com.denizenscript.denizencore.DenizenCore;
@@ -22,6 +23,7 @@ public class ReloadScriptsScriptEvent extends ScriptEvent {
     //
     // @Context
     // <context.had_error> returns an ElementTag(Boolean) whether there was an error.
+    // <context.changed_files> returns a ListTag of the script files (relative to the scripts folder) whose changes triggered the reload. Only present when the reload was started by the script file watcher.
     //
     // -->
 
@@ -29,6 +31,8 @@ public class ReloadScriptsScriptEvent extends ScriptEvent {
 
     public boolean hadError = false;
 
+    public ListTag changedFiles = null;
+
     @Override
     public ScriptEntryData getScriptEntryData() {
         return DenizenCore.getImplementation().getEmptyScriptEntryData();
@@ -37,11 +41,14 @@ public class ReloadScriptsScriptEvent extends ScriptEvent {
     @Override
     public ObjectTag getContext(String name) {
         if (name.equals("had_error")) {
-            return new ElementTag(hadError);
+            return ElementTag.valueOf(hadError);
+        }
+        else if (name.equals("changed_files") && changedFiles != null) {
+            return changedFiles;
         }
         else if (name.equals("haderror")) {
             Deprecations.scriptReloadEventNoUnderscore.warn();
-            return new ElementTag(hadError);
+            return ElementTag.valueOf(hadError);
         }
         return super.getContext(name);
     }
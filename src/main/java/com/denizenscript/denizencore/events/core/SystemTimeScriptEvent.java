@@ -130,13 +130,13 @@ public class SystemTimeScriptEvent extends ScriptEvent {
             hour = new ElementTag("0" + h);
         }
         else {
-            hour = new ElementTag(h);
+            hour = ElementTag.valueOf(h);
         }
         if (m < 10) {
             minute = new ElementTag("0" + m);
         }
         else {
-            minute = new ElementTag(m);
+            minute = ElementTag.valueOf(m);
         }
         data = DenizenCore.getImplementation().getEmptyScriptEntryData();
         fire();
@@ -39,7 +39,7 @@ public class TickScriptEvent extends ScriptEvent {
     @Override
     public ObjectTag getContext(String name) {
         if (name.equals("tick")) {
-            return new ElementTag(ticks);
+            return ElementTag.valueOf(ticks);
         }
         return super.getContext(name);
     }
@@ -30,7 +30,7 @@ public abstract class AbstractFlagTracker {
             attribute.echoError("The has_flag[...] tag must have an input!");
             return null;
         }
-        return new ElementTag(hasFlag(attribute.getContext(1)));
+        return ElementTag.valueOf(hasFlag(attribute.getContext(1)));
     }
 
     public ObjectTag doFlagTag(Attribute attribute) {
@@ -40,7 +40,7 @@ public abstract class AbstractFlagTracker {
         }
         if (attribute.getAttributeWithoutContext(2).equals("is_expired")) {
             Deprecations.flagIsExpiredTag.warn(attribute.context);
-            return new ElementTag(!hasFlag(attribute.getContext(1)));
+            return ElementTag.valueOf(!hasFlag(attribute.getContext(1)));
         }
         else if (attribute.getAttributeWithoutContext(2).equals("expiration")) {
             Deprecations.flagIsExpiredTag.warn(attribute.context);
@@ -0,0 +1,233 @@
+package com.denizenscript.denizencore.flags;
+
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.text.StringHolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Saves a MapTagFlagTracker as a full snapshot file plus an append-only journal of changed flags.
+ * Each save only appends the flags changed since the previous save, and the journal is compacted back into a fresh snapshot once it grows larger than the snapshot.
+ * The snapshot and journal both record a generation number, which goes up with each compaction. A journal is only replayed over the snapshot of the same generation,
+ * so a journal left behind by a crash partway through a compaction is never replayed over the newer snapshot that already contains its changes.
+ */
+public class FlagJournal {
+
+    /**
+     * The journal will not be compacted until it's at least this many bytes, even if the snapshot is smaller.
+     */
+    public static long minimumCompactSize = 64 * 1024;
+
+    private static final byte RECORD_SET = 1, RECORD_REMOVE = 2;
+
+    public final File snapshotFile;
+
+    public final File journalFile;
+
+    /**
+     * The generation of the current snapshot, as read by 'load' or written by 'compact', or -1 if neither has been called yet.
+     */
+    public long generation = -1;
+
+    public FlagJournal(File snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = new File(snapshotFile.getPath() + ".journal");
+    }
+
+    /**
+     * Loads the snapshot and replays the journal over it, returning a tracker with change tracking enabled.
+     */
+    public MapTagFlagTracker load() throws IOException {
+        MapTag map = null;
+        generation = 0;
+        if (snapshotFile.exists()) {
+            String snapshot = new String(Files.readAllBytes(snapshotFile.toPath()), StandardCharsets.UTF_8);
+            int lineEnd = snapshot.indexOf('\n');
+            long snapshotGeneration = lineEnd == -1 ? -1 : parseGeneration(snapshot.substring(0, lineEnd));
+            if (snapshotGeneration != -1) {
+                generation = snapshotGeneration;
+                snapshot = snapshot.substring(lineEnd + 1);
+            }
+            map = MapTag.valueOf(snapshot, CoreUtilities.noDebugContext);
+        }
+        if (map == null) {
+            map = new MapTag();
+        }
+        MapTagFlagTracker.markFlagMaps(map);
+        if (journalFile.exists()) {
+            replayJournal(map);
+        }
+        MapTagFlagTracker tracker = new MapTagFlagTracker(map);
+        tracker.trackChanges = true;
+        return tracker;
+    }
+
+    /**
+     * Parses the generation line at the start of a snapshot, or returns -1 if it isn't one (such as for a snapshot written without a generation header).
+     */
+    private static long parseGeneration(String line) {
+        try {
+            long generation = Long.parseLong(line);
+            return generation < 0 ? -1 : generation;
+        }
+        catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private long readSnapshotGeneration() throws IOException {
+        if (!snapshotFile.exists()) {
+            return 0;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(snapshotFile), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            return line == null ? 0 : Math.max(0, parseGeneration(line));
+        }
+    }
+
+    private void replayJournal(MapTag root) throws IOException {
+        long validLength = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            long journalGeneration;
+            try {
+                journalGeneration = input.readLong();
+            }
+            catch (EOFException ex) {
+                journalGeneration = -1;
+            }
+            if (journalGeneration == generation) {
+                validLength = 8;
+                while (true) {
+                    int type = input.read();
+                    if (type != RECORD_SET && type != RECORD_REMOVE) {
+                        break;
+                    }
+                    byte[] key = readBytes(input);
+                    byte[] value = type == RECORD_SET ? readBytes(input) : null;
+                    if (key == null || (type == RECORD_SET && value == null)) {
+                        break;
+                    }
+                    applyRecord(root, new String(key, StandardCharsets.UTF_8), value == null ? null : new String(value, StandardCharsets.UTF_8));
+                    validLength += 1 + 4 + key.length + (value == null ? 0 : 4 + value.length);
+                }
+            }
+        }
+        if (validLength == 0) {
+            Files.delete(journalFile.toPath());
+        }
+        else if (validLength < journalFile.length()) {
+            Debug.echoError("Flag journal '" + journalFile.getPath() + "' ends with an incomplete record, which will be discarded.");
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(validLength);
+            }
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+        }
+        catch (EOFException ex) {
+            return null;
+        }
+        return bytes;
+    }
+
+    private static void writeString(DataOutputStream output, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void applyRecord(MapTag root, String key, String value) {
+        StringHolder[] keys = MapTagFlagTracker.splitKey(key);
+        MapTag map = root;
+        for (int i = 0; i < keys.length - 1; i++) {
+            ObjectTag subMap = map.map.get(keys[i]);
+            if (!(subMap instanceof MapTag) || !((MapTag) subMap).isFlagMap) {
+                if (value == null) {
+                    return;
+                }
+                subMap = new MapTag();
+                ((MapTag) subMap).isFlagMap = true;
+                map.map.put(keys[i], subMap);
+            }
+            map = (MapTag) subMap;
+        }
+        if (value == null) {
+            map.map.remove(keys[keys.length - 1]);
+            return;
+        }
+        MapTag flagMap = MapTag.valueOf(value, CoreUtilities.noDebugContext);
+        if (flagMap != null) {
+            MapTagFlagTracker.markFlagMaps(flagMap);
+            map.map.put(keys[keys.length - 1], flagMap);
+        }
+    }
+
+    /**
+     * Saves the changes made to the tracker since the last save, compacting the journal into a new snapshot if it has grown too large.
+     */
+    public void save(MapTagFlagTracker tracker) throws IOException {
+        if (generation < 0 || !snapshotFile.exists() || journalFile.length() > Math.max(minimumCompactSize, snapshotFile.length())) {
+            compact(tracker);
+            return;
+        }
+        if (tracker.changedFlags.isEmpty()) {
+            return;
+        }
+        boolean isNewJournal = !journalFile.exists() || journalFile.length() == 0;
+        try (FileOutputStream fileOutput = new FileOutputStream(journalFile, true)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+            if (isNewJournal) {
+                output.writeLong(generation);
+            }
+            for (String key : tracker.changedFlags) {
+                MapTag flagMap = tracker.getFlagMap(key);
+                if (flagMap == null) {
+                    output.write(RECORD_REMOVE);
+                    writeString(output, key);
+                }
+                else {
+                    output.write(RECORD_SET);
+                    writeString(output, key);
+                    writeString(output, flagMap.identify());
+                }
+            }
+            output.flush();
+            fileOutput.getFD().sync();
+        }
+        tracker.clearChanges();
+    }
+
+    /**
+     * Writes the full tracker to a new snapshot file with the next generation number, and removes the journal.
+     * If this is interrupted after the snapshot is replaced, the old journal is left behind but ignored by 'load', as its generation no longer matches.
+     */
+    public void compact(MapTagFlagTracker tracker) throws IOException {
+        long newGeneration = Math.max(generation, readSnapshotGeneration()) + 1;
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            output.write((newGeneration + "\n" + tracker.map.identify()).getBytes(StandardCharsets.UTF_8));
+            output.getFD().sync();
+        }
+        try {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        generation = newGeneration;
+        Files.deleteIfExists(journalFile.toPath());
+        tracker.clearChanges();
+    }
+}
@@ -8,8 +8,11 @@ import com.denizenscript.denizencore.utilities.text.StringHolder;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 public class MapTagFlagTracker extends AbstractFlagTracker {
 
@@ -23,38 +26,184 @@ public class MapTagFlagTracker extends AbstractFlagTracker {
 
     public static StringHolder expirationString = new StringHolder("__expiration");
 
-    public boolean needsClean = false;
+    /**
+     * If enabled, every key given to 'setFlag' is recorded in 'changedFlags', so that a save can write only what changed (see FlagJournal).
+     */
+    public boolean trackChanges = false;
+
+    /**
+     * Flag keys changed by 'setFlag' since the last call to 'clearChanges', in the order they were last changed.
+     * Only filled if 'trackChanges' is enabled. Changes made directly to the map are not tracked.
+     */
+    public LinkedHashSet<String> changedFlags = new LinkedHashSet<>();
+
+    public void clearChanges() {
+        changedFlags.clear();
+    }
+
+    /**
+     * Marks the map and all sub-maps within it as flag maps, excluding flag values. This is needed for a flag map that was loaded from text, as the marker is not saved.
+     */
+    public static void markFlagMaps(MapTag map) {
+        map.isFlagMap = true;
+        for (Map.Entry<StringHolder, ObjectTag> entry : map.map.entrySet()) {
+            if (entry.getKey().equals(valueString) || entry.getKey().equals(expirationString)) {
+                continue;
+            }
+            if (entry.getValue() instanceof MapTag) {
+                markFlagMaps((MapTag) entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * A flag that will expire at a known time, as tracked by the expiration index.
+     * Entries are not removed right away when their flag is changed or removed. Instead they're skipped when they come due if they no longer match the flag in the map,
+     * and the whole index is compacted once such stale entries make up most of it.
+     */
+    public static class ExpiringFlag {
+
+        public long expiration;
+
+        /**
+         * The flag's key path.
+         */
+        public StringHolder[] path;
+
+        public MapTag flagMap;
+
+        public ExpiringFlag(long expiration, StringHolder[] path, MapTag flagMap) {
+            this.expiration = expiration;
+            this.path = path;
+            this.flagMap = flagMap;
+        }
+    }
+
+    /**
+     * All flags with an expiration time, soonest first.
+     */
+    public PriorityQueue<ExpiringFlag> expirationIndex = new PriorityQueue<>(Comparator.comparingLong((ExpiringFlag flag) -> flag.expiration));
+
+    /**
+     * Whether the expiration index has been built from the flag map yet. It's built the first time a flag is set or expired flags are removed,
+     * so that trackers which are only read from never walk the full flag tree.
+     */
+    public boolean expirationIndexBuilt = false;
+
+    /**
+     * The approximate number of entries in the expiration index that no longer match a flag in the map.
+     */
+    private int staleExpirationCount = 0;
+
+    /**
+     * The number of flags in the map that have a value, kept up to date by 'setFlag' and 'removeExpiredFlags' once the expiration index is built.
+     */
+    private int liveFlagCount = 0;
+
+    /**
+     * The expiration index is compacted once it has at least this many entries and more than half of them are stale.
+     */
+    public static int minimumExpirationCompactSize = 64;
+
+    /**
+     * The total number of flags removed from this tracker due to expiring.
+     */
+    public long expiredFlagCount = 0;
 
     public static boolean isExpired(ObjectTag expirationObj) {
         if (expirationObj == null) {
             return false;
         }
-        if (TimeTag.now().millis() > ((TimeTag) expirationObj).millis()) {
+        if (System.currentTimeMillis() > ((TimeTag) expirationObj).millis()) {
             return true;
         }
         return false;
     }
 
-    @Override
-    public ObjectTag getFlagValue(String key) {
-        List<String> splitKey = CoreUtilities.split(key, '.');
-        String endKey = splitKey.get(splitKey.size() - 1);
+    /**
+     * Returns the number of flags currently waiting to expire, or 0 if the expiration index hasn't been built yet.
+     * This may include some flags that were changed or removed before their expiration time.
+     */
+    public int getPendingExpirationCount() {
+        return expirationIndex.size();
+    }
+
+    /**
+     * Returns the number of flags in the tracker that have a value. Flags that expired since the last time expired flags were removed are still counted.
+     */
+    public int getLiveFlagCount() {
+        if (!expirationIndexBuilt) {
+            rebuildExpirationIndex();
+        }
+        return liveFlagCount;
+    }
+
+    /**
+     * Gets the flag map that directly holds the last key of the path, or null if there is none.
+     */
+    public MapTag getParentMap(StringHolder[] keys) {
         MapTag map = this.map;
-        for (int i = 0; i < splitKey.size() - 1; i++) {
-            ObjectTag subMap = map.map.get(new StringHolder(splitKey.get(i)));
+        for (int i = 0; i < keys.length - 1; i++) {
+            ObjectTag subMap = map.map.get(keys[i]);
             if (!(subMap instanceof MapTag) || !((MapTag) subMap).isFlagMap) {
                 return null;
             }
             map = (MapTag) subMap;
         }
-        ObjectTag obj = map.map.get(new StringHolder(endKey));
+        return map;
+    }
+
+    /**
+     * Splits a dotted flag key into its separate keys.
+     */
+    public static StringHolder[] splitKey(String key) {
+        List<String> parts = CoreUtilities.split(key, '.');
+        StringHolder[] keys = new StringHolder[parts.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new StringHolder(parts.get(i));
+        }
+        return keys;
+    }
+
+    /**
+     * Gets whatever object is stored at the given dotted key, walking each part of the key in place rather than splitting it.
+     * Returns null if there is nothing there, or if any map along the way isn't a flag map.
+     */
+    private ObjectTag getObjectAt(String key) {
+        StringHolder.Lookup lookup = StringHolder.lookup();
+        MapTag map = this.map;
+        int start = 0;
+        while (true) {
+            int end = key.indexOf('.', start);
+            ObjectTag obj = map.map.get(lookup.set(key, start, end == -1 ? key.length() : end));
+            if (end == -1) {
+                return obj;
+            }
+            if (!(obj instanceof MapTag) || !((MapTag) obj).isFlagMap) {
+                return null;
+            }
+            map = (MapTag) obj;
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Gets the raw flag map (holding the value, expiration, and any sub-flags) at the given key, or null if there is none.
+     */
+    public MapTag getFlagMap(String key) {
+        ObjectTag obj = getObjectAt(key);
+        return obj instanceof MapTag && ((MapTag) obj).isFlagMap ? (MapTag) obj : null;
+    }
+
+    @Override
+    public ObjectTag getFlagValue(String key) {
+        ObjectTag obj = getObjectAt(key);
         if (obj instanceof MapTag) {
             ObjectTag value = ((MapTag) obj).map.get(valueString);
             if (value == null) {
                 return null;
             }
             if (isExpired(((MapTag) obj).map.get(expirationString))) {
-                needsClean = true;
                 return null;
             }
             return value;
@@ -87,35 +236,156 @@ public class MapTagFlagTracker extends AbstractFlagTracker {
                     toRemove.add(entry.getKey());
                 }
                 else {
-                    doClean(map);
+                    doClean((MapTag) entry.getValue());
                 }
             }
         }
         for (StringHolder str : toRemove) {
             map.map.remove(str);
         }
+        expiredFlagCount += toRemove.size();
+    }
+
+    /**
+     * Removes any already-expired flags, and rebuilds the expiration index from the full flag tree.
+     * This is only needed when the flag map is changed other than through 'setFlag', as the index is otherwise kept up to date automatically.
+     */
+    public void rebuildExpirationIndex() {
+        expirationIndex.clear();
+        doClean(map);
+        liveFlagCount = 0;
+        indexExpirations(map, new ArrayList<>());
+        expirationIndexBuilt = true;
+        staleExpirationCount = 0;
+    }
+
+    private boolean isCurrent(ExpiringFlag flag) {
+        MapTag parent = getParentMap(flag.path);
+        return parent != null && parent.map.get(flag.path[flag.path.length - 1]) == flag.flagMap;
+    }
+
+    /**
+     * Removes all stale entries from the expiration index, so that they don't keep old flag maps in memory.
+     */
+    private void compactExpirationIndex() {
+        ArrayList<ExpiringFlag> current = new ArrayList<>(expirationIndex.size() - staleExpirationCount);
+        for (ExpiringFlag flag : expirationIndex) {
+            if (isCurrent(flag)) {
+                current.add(flag);
+            }
+        }
+        expirationIndex.clear();
+        expirationIndex.addAll(current);
+        staleExpirationCount = 0;
+    }
+
+    /**
+     * Updates the live flag count and stale expiration count for a flag map that was just taken out of the tree, along with all of its sub-flags.
+     */
+    private void countRemovedFlags(ObjectTag oldFlag) {
+        if (!(oldFlag instanceof MapTag) || !((MapTag) oldFlag).isFlagMap) {
+            return;
+        }
+        MapTag flagMap = (MapTag) oldFlag;
+        for (Map.Entry<StringHolder, ObjectTag> entry : flagMap.map.entrySet()) {
+            if (entry.getKey().equals(valueString)) {
+                liveFlagCount--;
+            }
+            else if (entry.getKey().equals(expirationString)) {
+                if (entry.getValue() instanceof TimeTag) {
+                    staleExpirationCount++;
+                }
+            }
+            else {
+                countRemovedFlags(entry.getValue());
+            }
+        }
+    }
+
+    private void compactExpirationIndexIfNeeded() {
+        if (staleExpirationCount * 2 > expirationIndex.size() && expirationIndex.size() >= minimumExpirationCompactSize) {
+            compactExpirationIndex();
+        }
+    }
+
+    private void indexExpirations(MapTag map, ArrayList<StringHolder> path) {
+        for (Map.Entry<StringHolder, ObjectTag> entry : map.map.entrySet()) {
+            if (entry.getKey().equals(valueString) || entry.getKey().equals(expirationString)) {
+                continue;
+            }
+            if (entry.getValue() instanceof MapTag && ((MapTag) entry.getValue()).isFlagMap) {
+                MapTag flagMap = (MapTag) entry.getValue();
+                path.add(entry.getKey());
+                ObjectTag expiration = flagMap.map.get(expirationString);
+                if (expiration instanceof TimeTag) {
+                    expirationIndex.add(new ExpiringFlag(((TimeTag) expiration).millis(), path.toArray(new StringHolder[0]), flagMap));
+                }
+                if (flagMap.map.get(valueString) != null) {
+                    liveFlagCount++;
+                }
+                indexExpirations(flagMap, path);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Removes all flags that have reached their expiration time, as found from the expiration index.
+     */
+    public void removeExpiredFlags() {
+        if (!expirationIndexBuilt) {
+            rebuildExpirationIndex();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        while (!expirationIndex.isEmpty() && expirationIndex.peek().expiration < now) {
+            ExpiringFlag flag = expirationIndex.poll();
+            if (isCurrent(flag)) {
+                getParentMap(flag.path).map.remove(flag.path[flag.path.length - 1]);
+                expiredFlagCount++;
+                // The flag's own entry was just taken out of the index, so only its sub-flags' entries become stale
+                countRemovedFlags(flag.flagMap);
+                staleExpirationCount--;
+            }
+            else if (staleExpirationCount > 0) {
+                staleExpirationCount--;
+            }
+        }
+        compactExpirationIndexIfNeeded();
     }
 
     @Override
     public void setFlag(String key, ObjectTag value, TimeTag expiration) {
-        if (needsClean) {
-            doClean(map);
+        removeExpiredFlags();
+        if (trackChanges) {
+            changedFlags.remove(key);
+            changedFlags.add(key);
         }
-        List<String> splitKey = CoreUtilities.split(key, '.');
-        String endKey = splitKey.get(splitKey.size() - 1);
-        for (int i = 0; i < splitKey.size() - 1; i++) {
-            ObjectTag subMap = map.map.get(new StringHolder(splitKey.get(i)));
+        StringHolder[] keys = splitKey(key);
+        MapTag map = this.map;
+        for (int i = 0; i < keys.length - 1; i++) {
+            ObjectTag subMap = map.map.get(keys[i]);
             if (!(subMap instanceof MapTag) || !((MapTag) subMap).isFlagMap) {
                 subMap = new MapTag();
                 ((MapTag) subMap).isFlagMap = true;
-                map.map.put(new StringHolder(splitKey.get(i)), subMap);
+                map.map.put(keys[i], subMap);
             }
             map = (MapTag) subMap;
         }
+        if (value == null) {
+            countRemovedFlags(map.map.remove(keys[keys.length - 1]));
+            compactExpirationIndexIfNeeded();
+            return;
+        }
         MapTag resultMap = new MapTag();
         resultMap.isFlagMap = true;
         resultMap.map.put(valueString, value);
-        resultMap.map.put(expirationString, expiration);
-        map.map.put(new StringHolder(endKey), resultMap);
+        countRemovedFlags(map.map.put(keys[keys.length - 1], resultMap));
+        compactExpirationIndexIfNeeded();
+        liveFlagCount++;
+        if (expiration != null) {
+            resultMap.map.put(expirationString, expiration);
+            expirationIndex.add(new ExpiringFlag(expiration.millis(), keys, resultMap));
+        }
     }
 }
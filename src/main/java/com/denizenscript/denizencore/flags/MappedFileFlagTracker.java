@@ -0,0 +1,522 @@
+package com.denizenscript.denizencore.flags;
+
+import com.denizenscript.denizencore.objects.ObjectFetcher;
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.TimeTag;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A flag tracker that keeps its flags in a memory-mapped file rather than as objects on the heap, meant for very large flag sets (such as server flags).
+ * Values are only turned into objects when read. The file is opened directly without being parsed, so there's no load time.
+ *
+ * The file holds an open-addressing hash index of fixed-size slots, followed by an append-only region of flag records.
+ * Changing a flag appends a new record and points its slot to it. Space from old records is reclaimed by rebuilding the file once enough of it is unused.
+ *
+ * Keys are stored in lowercase. Setting or removing a flag also removes any sub-flags below it, the same as MapTagFlagTracker.
+ * A single file is limited to 2GB.
+ */
+public class MappedFileFlagTracker extends AbstractFlagTracker {
+
+    public static int initialCapacity = 1024;
+
+    public static double maxLoadFactor = 0.6;
+
+    private static final int MAGIC = 0x44464C47;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 32, HEADER_CAPACITY = 8, HEADER_USED_SLOTS = 12, HEADER_LIVE_COUNT = 16, HEADER_DATA_END = 20;
+
+    private static final int SLOT_SIZE = 16;
+
+    private static final long SLOT_EMPTY = 0, SLOT_REMOVED = -1;
+
+    /**
+     * A flag that will expire at a known time, referenced by its record's position in the file.
+     */
+    private static class ExpiringFlag {
+
+        long expiration;
+
+        int record;
+
+        ExpiringFlag(long expiration, int record) {
+            this.expiration = expiration;
+            this.record = record;
+        }
+    }
+
+    public final File file;
+
+    private RandomAccessFile randomAccessFile;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int capacity, usedSlots, liveCount, dataEnd, deadBytes;
+
+    /**
+     * All keys that currently have at least one sub-flag, so that sub-flags only need to be searched for when one of these keys is changed.
+     */
+    private final HashSet<String> parentKeys = new HashSet<>();
+
+    private final PriorityQueue<ExpiringFlag> expirationIndex = new PriorityQueue<>(Comparator.comparingLong((ExpiringFlag flag) -> flag.expiration));
+
+    /**
+     * The total number of flags removed from this tracker due to expiring.
+     */
+    public long expiredFlagCount = 0;
+
+    public MappedFileFlagTracker(File file) throws IOException {
+        this.file = file;
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+        if (randomAccessFile.length() >= HEADER_SIZE) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                close();
+                throw new IOException("File '" + file.getPath() + "' is not a flag file of a supported version.");
+            }
+            capacity = buffer.getInt(HEADER_CAPACITY);
+            usedSlots = buffer.getInt(HEADER_USED_SLOTS);
+            liveCount = buffer.getInt(HEADER_LIVE_COUNT);
+            dataEnd = (int) buffer.getLong(HEADER_DATA_END);
+        }
+        else {
+            capacity = initialCapacity;
+            dataEnd = HEADER_SIZE + capacity * SLOT_SIZE;
+            randomAccessFile.setLength(dataEnd * 2L);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            writeHeader();
+        }
+        int liveBytes = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int record = getSlotRecord(slot);
+            if (record <= 0) {
+                continue;
+            }
+            liveBytes += recordSize(record);
+            long expiration = getRecordExpiration(record);
+            if (expiration != 0) {
+                expirationIndex.add(new ExpiringFlag(expiration, record));
+            }
+            if (recordKeyHasDot(record)) {
+                addParentKeys(getRecordKey(record));
+            }
+        }
+        deadBytes = dataEnd - (HEADER_SIZE + capacity * SLOT_SIZE) - liveBytes;
+    }
+
+    /**
+     * Writes all changes to disk, and closes the file. The tracker cannot be used after this.
+     */
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        randomAccessFile.close();
+    }
+
+    /**
+     * Writes any changes not yet written to disk by the operating system.
+     */
+    public void save() {
+        buffer.force();
+    }
+
+    public int getFlagCount() {
+        return liveCount;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(HEADER_CAPACITY, capacity);
+        buffer.putInt(HEADER_USED_SLOTS, usedSlots);
+        buffer.putInt(HEADER_LIVE_COUNT, liveCount);
+        buffer.putLong(HEADER_DATA_END, dataEnd);
+    }
+
+    private static int hashKey(String lowKey) {
+        int hash = lowKey.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int getSlotRecord(int slot) {
+        return (int) buffer.getLong(slotPosition(slot) + 8);
+    }
+
+    private int recordSize(int record) {
+        int keyLength = buffer.getInt(record);
+        return 4 + keyLength + 8 + 4 + buffer.getInt(record + 4 + keyLength + 8);
+    }
+
+    private long getRecordExpiration(int record) {
+        return buffer.getLong(record + 4 + buffer.getInt(record));
+    }
+
+    private String getRecordKey(int record) {
+        byte[] bytes = new byte[buffer.getInt(record)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(record + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean recordKeyHasDot(int record) {
+        int keyLength = buffer.getInt(record);
+        for (int i = 0; i < keyLength; i++) {
+            if (buffer.get(record + 4 + i) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getRecordValue(int record) {
+        int valuePosition = record + 4 + buffer.getInt(record) + 8;
+        byte[] bytes = new byte[buffer.getInt(valuePosition)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(valuePosition + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean recordKeyEquals(int record, byte[] key) {
+        if (buffer.getInt(record) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(record + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the slot holding the key, or -1 if the key isn't present.
+     */
+    private int findSlot(byte[] key, int hash) {
+        int slot = (hash & 0x7FFFFFFF) % capacity;
+        for (int i = 0; i < capacity; i++) {
+            int position = slotPosition(slot);
+            long record = buffer.getLong(position + 8);
+            if (record == SLOT_EMPTY) {
+                return -1;
+            }
+            if (record != SLOT_REMOVED && buffer.getInt(position) == hash && recordKeyEquals((int) record, key)) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        return -1;
+    }
+
+    private void insertSlot(int hash, int record) {
+        int slot = (hash & 0x7FFFFFFF) % capacity;
+        while (true) {
+            int position = slotPosition(slot);
+            long existing = buffer.getLong(position + 8);
+            if (existing == SLOT_EMPTY || existing == SLOT_REMOVED) {
+                if (existing == SLOT_EMPTY) {
+                    usedSlots++;
+                }
+                buffer.putInt(position, hash);
+                buffer.putLong(position + 8, record);
+                return;
+            }
+            slot = (slot + 1) % capacity;
+        }
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        long needed = (long) dataEnd + bytes;
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        long newLength = Math.max(needed, buffer.capacity() * 2L);
+        if (newLength > Integer.MAX_VALUE) {
+            newLength = Integer.MAX_VALUE;
+            if (needed > newLength) {
+                throw new IOException("Flag file '" + file.getPath() + "' has reached the maximum size.");
+            }
+        }
+        buffer.force();
+        randomAccessFile.setLength(newLength);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newLength);
+    }
+
+    private int writeRecord(byte[] key, long expiration, byte[] value) throws IOException {
+        int size = 4 + key.length + 8 + 4 + value.length;
+        ensureSpace(size);
+        int record = dataEnd;
+        buffer.putInt(record, key.length);
+        for (int i = 0; i < key.length; i++) {
+            buffer.put(record + 4 + i, key[i]);
+        }
+        buffer.putLong(record + 4 + key.length, expiration);
+        buffer.putInt(record + 4 + key.length + 8, value.length);
+        for (int i = 0; i < value.length; i++) {
+            buffer.put(record + 4 + key.length + 12 + i, value[i]);
+        }
+        dataEnd += size;
+        return record;
+    }
+
+    private void removeSlot(int slot) {
+        int record = getSlotRecord(slot);
+        deadBytes += recordSize(record);
+        buffer.putLong(slotPosition(slot) + 8, SLOT_REMOVED);
+        liveCount--;
+    }
+
+    private void addParentKeys(String lowKey) {
+        int dot = lowKey.lastIndexOf('.');
+        while (dot != -1) {
+            lowKey = lowKey.substring(0, dot);
+            if (!parentKeys.add(lowKey)) {
+                return;
+            }
+            dot = lowKey.lastIndexOf('.');
+        }
+    }
+
+    /**
+     * Removes every flag below the given key. This requires a search of the full index, but only happens for keys that are known to have sub-flags.
+     */
+    private void removeSubFlags(String lowKey) {
+        if (!parentKeys.remove(lowKey)) {
+            return;
+        }
+        String prefix = lowKey + ".";
+        for (int slot = 0; slot < capacity; slot++) {
+            int record = getSlotRecord(slot);
+            if (record > 0 && recordKeyHasDot(record) && getRecordKey(record).startsWith(prefix)) {
+                removeSlot(slot);
+            }
+        }
+        parentKeys.removeIf((key) -> key.startsWith(prefix));
+    }
+
+    /**
+     * Removes all flags that have reached their expiration time, as found from the expiration index.
+     */
+    public void removeExpiredFlags() {
+        long now = System.currentTimeMillis();
+        while (!expirationIndex.isEmpty() && expirationIndex.peek().expiration < now) {
+            ExpiringFlag flag = expirationIndex.poll();
+            String lowKey = getRecordKey(flag.record);
+            byte[] key = lowKey.getBytes(StandardCharsets.UTF_8);
+            int slot = findSlot(key, hashKey(lowKey));
+            if (slot != -1 && getSlotRecord(slot) == flag.record) {
+                removeSlot(slot);
+                removeSubFlags(lowKey);
+                expiredFlagCount++;
+            }
+        }
+        writeHeader();
+    }
+
+    @Override
+    public ObjectTag getFlagValue(String key) {
+        String lowKey = CoreUtilities.toLowerCase(key);
+        int slot = findSlot(lowKey.getBytes(StandardCharsets.UTF_8), hashKey(lowKey));
+        if (slot == -1) {
+            return null;
+        }
+        int record = getSlotRecord(slot);
+        long expiration = getRecordExpiration(record);
+        if (expiration != 0 && System.currentTimeMillis() > expiration) {
+            return null;
+        }
+        return ObjectFetcher.pickObjectFor(getRecordValue(record), CoreUtilities.noDebugContext);
+    }
+
+    @Override
+    public TimeTag getFlagExpirationTime(String key) {
+        return null;
+    }
+
+    @Override
+    public Collection<String> listAllFlags() {
+        LinkedHashSet<String> keys = new LinkedHashSet<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            int record = getSlotRecord(slot);
+            if (record > 0) {
+                String key = getRecordKey(record);
+                int dot = key.indexOf('.');
+                keys.add(dot == -1 ? key : key.substring(0, dot));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void setFlag(String key, ObjectTag value, TimeTag expiration) {
+        try {
+            removeExpiredFlags();
+            String lowKey = CoreUtilities.toLowerCase(key);
+            byte[] keyBytes = lowKey.getBytes(StandardCharsets.UTF_8);
+            int hash = hashKey(lowKey);
+            int slot = findSlot(keyBytes, hash);
+            // Write the new record before touching the old one, so that if writing fails the previous value is still there
+            int record = 0;
+            long expirationMillis = expiration == null ? 0 : expiration.millis();
+            if (value != null) {
+                if (slot == -1 && usedSlots + 1 > capacity * maxLoadFactor) {
+                    // If most used slots are only removed flags, clearing those out is enough to make room
+                    rebuild(usedSlots - liveCount > usedSlots / 2 ? capacity : capacityFor(liveCount + 1));
+                }
+                record = writeRecord(keyBytes, expirationMillis, value.savable().getBytes(StandardCharsets.UTF_8));
+            }
+            if (slot != -1) {
+                if (value != null) {
+                    deadBytes += recordSize(getSlotRecord(slot));
+                    buffer.putLong(slotPosition(slot) + 8, record);
+                }
+                else {
+                    removeSlot(slot);
+                }
+            }
+            else if (value != null) {
+                insertSlot(hash, record);
+                liveCount++;
+            }
+            removeSubFlags(lowKey);
+            if (value != null) {
+                if (expirationMillis != 0) {
+                    expirationIndex.add(new ExpiringFlag(expirationMillis, record));
+                }
+                addParentKeys(lowKey);
+            }
+            writeHeader();
+            if (deadBytes > 1024 * 1024 && deadBytes > (dataEnd - HEADER_SIZE - capacity * SLOT_SIZE) / 2) {
+                rebuild(capacityFor(liveCount));
+            }
+        }
+        catch (IOException ex) {
+            Debug.echoError("Failed to write flag to file '" + file.getPath() + "'.");
+            Debug.echoError(ex);
+        }
+    }
+
+    /**
+     * Returns the smallest index capacity (from 'initialCapacity' upward) that would hold the given number of flags at no more than half the max load factor.
+     */
+    private static int capacityFor(int flags) {
+        int newCapacity = initialCapacity;
+        while (flags > newCapacity * maxLoadFactor / 2 && newCapacity < (1 << 26)) {
+            newCapacity *= 2;
+        }
+        return newCapacity;
+    }
+
+    /**
+     * Rewrites the file with only its live records and the given index capacity, freeing the space used by old records and removed slots.
+     * The new file is fully written to a temporary file first, then moved over the original, so the original is never left partially written.
+     */
+    public void rebuild(int newCapacity) throws IOException {
+        int newDataStart = HEADER_SIZE + newCapacity * SLOT_SIZE;
+        ByteBuffer index = ByteBuffer.allocate(newDataStart);
+        ArrayList<ExpiringFlag> newExpirations = new ArrayList<>();
+        int newUsedSlots = 0;
+        long newDataEnd = newDataStart;
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileChannel tempChannel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int slot = 0; slot < capacity; slot++) {
+                int record = getSlotRecord(slot);
+                if (record <= 0) {
+                    continue;
+                }
+                int size = recordSize(record);
+                if (newDataEnd + size > Integer.MAX_VALUE) {
+                    throw new IOException("Flag file '" + file.getPath() + "' has reached the maximum size.");
+                }
+                ByteBuffer recordBytes = buffer.duplicate();
+                recordBytes.limit(record + size).position(record);
+                while (recordBytes.hasRemaining()) {
+                    tempChannel.write(recordBytes, newDataEnd + recordBytes.position() - record);
+                }
+                int hash = buffer.getInt(slotPosition(slot));
+                int newSlot = (hash & 0x7FFFFFFF) % newCapacity;
+                while (index.getLong(HEADER_SIZE + newSlot * SLOT_SIZE + 8) != SLOT_EMPTY) {
+                    newSlot = (newSlot + 1) % newCapacity;
+                }
+                index.putInt(HEADER_SIZE + newSlot * SLOT_SIZE, hash);
+                index.putLong(HEADER_SIZE + newSlot * SLOT_SIZE + 8, newDataEnd);
+                newUsedSlots++;
+                long expiration = getRecordExpiration(record);
+                if (expiration != 0) {
+                    newExpirations.add(new ExpiringFlag(expiration, (int) newDataEnd));
+                }
+                newDataEnd += size;
+            }
+            index.putInt(0, MAGIC);
+            index.putInt(4, FORMAT_VERSION);
+            index.putInt(HEADER_CAPACITY, newCapacity);
+            index.putInt(HEADER_USED_SLOTS, newUsedSlots);
+            index.putInt(HEADER_LIVE_COUNT, newUsedSlots);
+            index.putLong(HEADER_DATA_END, newDataEnd);
+            while (index.hasRemaining()) {
+                tempChannel.write(index, index.position());
+            }
+            long newLength = Math.min(Integer.MAX_VALUE, newDataEnd * 2);
+            if (tempChannel.size() < newLength) {
+                tempChannel.write(ByteBuffer.allocate(1), newLength - 1);
+            }
+            tempChannel.force(true);
+        }
+        catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        buffer.force();
+        buffer = null;
+        randomAccessFile.close();
+        try {
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        finally {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            channel = randomAccessFile.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+        }
+        capacity = newCapacity;
+        usedSlots = newUsedSlots;
+        liveCount = newUsedSlots;
+        dataEnd = (int) newDataEnd;
+        deadBytes = 0;
+        expirationIndex.clear();
+        expirationIndex.addAll(newExpirations);
+    }
+}
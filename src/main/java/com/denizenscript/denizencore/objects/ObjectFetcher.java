@@ -40,6 +40,15 @@ public class ObjectFetcher {
         public String prefix;
 
         public boolean isAdjustable;
+
+        /**
+         * Whether objects of this type are immutable, such that a single parsed instance can be safely shared by every
+         * identical identify string. Objects of cacheable types are kept in the fetch cache (see 'getObjectFrom').
+         * Only set this for types whose 'valueOf' always gives the same result for the same input regardless of the TagContext,
+         * and whose 'setPrefix' does not modify the instance, as cached objects are returned to every caller.
+         * No core type is cacheable: DurationTag, for example, picks a random value for range input and has a mutable prefix.
+         */
+        public boolean isCacheable;
     }
 
     public static Map<String, ObjectType<? extends ObjectTag>> objectsByPrefix = new HashMap<>();
@@ -57,6 +66,40 @@ public class ObjectFetcher {
         registerWithObjectFetcher(TimeTag.class, TimeTag.tagProcessor); // time@
     }
 
+    /**
+     * The maximum number of objects kept in the fetch cache.
+     */
+    public static int fetchCacheMaxSize = 4096;
+
+    public static final LinkedHashMap<String, ObjectTag> fetchCache = new LinkedHashMap<String, ObjectTag>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ObjectTag> eldest) {
+            return size() > fetchCacheMaxSize;
+        }
+    };
+
+    public static long fetchCacheHits = 0;
+
+    public static long fetchCacheMisses = 0;
+
+    /**
+     * Returns the fraction (0 to 1) of cacheable object fetches that were served from the fetch cache.
+     */
+    public static double getFetchCacheHitRate() {
+        synchronized (fetchCache) {
+            long total = fetchCacheHits + fetchCacheMisses;
+            return total == 0 ? 0 : (double) fetchCacheHits / total;
+        }
+    }
+
+    public static void clearFetchCache() {
+        synchronized (fetchCache) {
+            fetchCache.clear();
+            fetchCacheHits = 0;
+            fetchCacheMisses = 0;
+        }
+    }
+
     public static MatchesInterface getMatchesFor(Class clazz) {
         try {
             final MethodHandles.Lookup lookup = MethodHandles.lookup();
@@ -202,6 +245,27 @@ public class ObjectFetcher {
     }
 
     public static <T extends ObjectTag> T getObjectFrom(ObjectType<T> type, String value, TagContext context) {
+        if (!type.isCacheable) {
+            return parseObjectFrom(type, value, context);
+        }
+        synchronized (fetchCache) {
+            ObjectTag cached = fetchCache.get(value);
+            if (cached != null && cached.getClass() == type.clazz) {
+                fetchCacheHits++;
+                return (T) cached;
+            }
+            fetchCacheMisses++;
+        }
+        T result = parseObjectFrom(type, value, context);
+        if (result != null) {
+            synchronized (fetchCache) {
+                fetchCache.put(value, result);
+            }
+        }
+        return result;
+    }
+
+    public static <T extends ObjectTag> T parseObjectFrom(ObjectType<T> type, String value, TagContext context) {
         try {
             List<String> matches = separateProperties(value);
             boolean matched = matches != null && type.isAdjustable;
@@ -249,7 +313,7 @@ public class ObjectFetcher {
             return null;
         }
         if (CoreUtilities.contains(value, '@')) {
-            String type = value.split("@", 2)[0];
+            String type = value.substring(0, value.indexOf('@'));
             ObjectType<? extends ObjectTag> toFetch = objectsByPrefix.get(type);
             if (toFetch != null) {
                 ObjectTag fetched = getObjectFrom(toFetch, value, context);
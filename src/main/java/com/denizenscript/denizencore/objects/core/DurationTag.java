@@ -399,7 +399,7 @@ public class DurationTag implements ObjectTag {
         // returns the number of ticks in the Duration. (20t/second)
         // -->
         registerTag("in_ticks", (attribute, object) -> {
-            return new ElementTag((long) (object.seconds * 20L));
+            return ElementTag.valueOf((long) (object.seconds * 20L));
         }, "ticks");
 
         // <--[tag]
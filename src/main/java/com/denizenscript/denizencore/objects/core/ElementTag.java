@@ -6,6 +6,7 @@ import com.denizenscript.denizencore.tags.*;
 import com.denizenscript.denizencore.utilities.AsciiMatcher;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.Deprecations;
+import com.denizenscript.denizencore.utilities.RegexCache;
 import com.denizenscript.denizencore.utilities.SQLEscaper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.tags.core.EscapeTagBase;
@@ -98,6 +99,53 @@ public class ElementTag implements ObjectTag {
         return string != null;
     }
 
+    public static final ElementTag TRUE = new ElementTag(true).markShared();
+
+    public static final ElementTag FALSE = new ElementTag(false).markShared();
+
+    public static final int smallIntegerCacheMinimum = -128;
+
+    public static final int smallIntegerCacheMaximum = 1024;
+
+    /**
+     * Shared ElementTags for every integer from 'smallIntegerCacheMinimum' to 'smallIntegerCacheMaximum'.
+     * Shared instances ignore 'setPrefix', so tags that return common results like list indices or sizes can reuse these rather than allocating.
+     */
+    private static final ElementTag[] smallIntegerCache = new ElementTag[smallIntegerCacheMaximum - smallIntegerCacheMinimum + 1];
+
+    static {
+        for (int i = 0; i < smallIntegerCache.length; i++) {
+            smallIntegerCache[i] = new ElementTag(i + smallIntegerCacheMinimum).markShared();
+        }
+    }
+
+    /**
+     * Gets the shared ElementTag for a boolean.
+     */
+    public static ElementTag valueOf(boolean bool) {
+        return bool ? TRUE : FALSE;
+    }
+
+    /**
+     * Gets an ElementTag for an integer, using a shared instance for small values.
+     */
+    public static ElementTag valueOf(int integer) {
+        if (integer >= smallIntegerCacheMinimum && integer <= smallIntegerCacheMaximum) {
+            return smallIntegerCache[integer - smallIntegerCacheMinimum];
+        }
+        return new ElementTag(integer);
+    }
+
+    /**
+     * Gets an ElementTag for a long, using a shared instance for small values.
+     */
+    public static ElementTag valueOf(long lng) {
+        if (lng >= smallIntegerCacheMinimum && lng <= smallIntegerCacheMaximum) {
+            return smallIntegerCache[(int) lng - smallIntegerCacheMinimum];
+        }
+        return new ElementTag(lng);
+    }
+
     /**
      * Handle null ObjectTags appropriately for potentionally null tags.
      * Will show a dB error message and return Element.NULL for null objects.
@@ -119,6 +167,76 @@ public class ElementTag implements ObjectTag {
 
     private final String element;
 
+    /**
+     * True for the shared instances returned by 'valueOf' for booleans and small integers, which must never change.
+     */
+    private boolean isShared = false;
+
+    private ElementTag markShared() {
+        isShared = true;
+        return this;
+    }
+
+    /**
+     * For large texts built by repeated appending (see 'append'), the text may live in a buffer shared with other
+     * ElementTags instead of in 'element'. Each such ElementTag owns the first 'appendLength' characters of the buffer,
+     * and its text is only built from the buffer into 'appendedText' the first time it's needed, after which the buffer is released.
+     */
+    private volatile StringBuilder appendBuffer;
+
+    private int appendLength;
+
+    private volatile String appendedText;
+
+    /**
+     * Texts shorter than this are always just concatenated normally by 'append'.
+     */
+    public static int appendBufferMinimumLength = 1024;
+
+    private ElementTag(StringBuilder buffer, int length) {
+        this.prefix = "element";
+        this.element = null;
+        this.appendBuffer = buffer;
+        this.appendLength = length;
+    }
+
+    private String flattenAppendBuffer() {
+        StringBuilder buffer = appendBuffer;
+        if (buffer != null) {
+            synchronized (buffer) {
+                if (appendedText == null) {
+                    appendedText = buffer.substring(0, appendLength);
+                }
+            }
+            appendBuffer = null;
+        }
+        return appendedText;
+    }
+
+    /**
+     * Returns a new ElementTag with the given text added onto the end of this element's text.
+     * When this element is already the latest piece of a large text being built up, the new text is added into the
+     * same shared buffer rather than copying the whole text again, making a sequence of appends linear rather than quadratic.
+     */
+    public ElementTag append(String text) {
+        StringBuilder buffer = appendBuffer;
+        if (buffer != null) {
+            synchronized (buffer) {
+                if (buffer.length() == appendLength) {
+                    buffer.append(text);
+                    return new ElementTag(buffer, buffer.length());
+                }
+            }
+        }
+        String current = asString();
+        if (current.length() + text.length() < appendBufferMinimumLength) {
+            return new ElementTag(current + text);
+        }
+        buffer = new StringBuilder((current.length() + text.length()) * 2);
+        buffer.append(current).append(text);
+        return new ElementTag(buffer, buffer.length());
+    }
+
     public ElementTag(String string) {
         this.prefix = "element";
         if (string == null) {
@@ -199,53 +317,72 @@ public class ElementTag implements ObjectTag {
         return bd;
     }
 
+    public static final Pattern integerCleanupPattern = Pattern.compile("(%)|(\\.\\d+)");
+
+    private String withoutPercent() {
+        String element = asString();
+        return element.indexOf('%') == -1 ? element : element.replace("%", "");
+    }
+
+    private String asIntegerText() {
+        String element = asString();
+        if (element.indexOf('%') == -1 && element.indexOf('.') == -1) {
+            return element;
+        }
+        return integerCleanupPattern.matcher(element).replaceAll("");
+    }
+
     public BigDecimal asBigDecimal() {
-        return getBD(element.replaceAll("%", ""));
+        return getBD(withoutPercent());
     }
 
     public double asDouble() {
-        return Double.parseDouble(element.replaceAll("%", ""));
+        return Double.parseDouble(withoutPercent());
     }
 
     public float asFloat() {
-        return Float.parseFloat(element.replaceAll("%", ""));
+        return Float.parseFloat(withoutPercent());
     }
 
     public int asInt() {
         try {
-            return Integer.parseInt(element.replaceAll("(%)|(\\.\\d+)", ""));
+            return Integer.parseInt(asIntegerText());
         }
         catch (NumberFormatException ex) {
-            Debug.echoError("'" + element + "' is not a valid integer!");
+            Debug.echoError("'" + asString() + "' is not a valid integer!");
             return 0;
         }
     }
 
     public long asLong() {
         try {
-            return Long.parseLong(element.replaceAll("(%)|(\\.\\d+)", ""));
+            return Long.parseLong(asIntegerText());
         }
         catch (NumberFormatException ex) {
-            Debug.echoError("'" + element + "' is not a valid integer!");
+            Debug.echoError("'" + asString() + "' is not a valid integer!");
             return 0;
         }
     }
 
     public boolean asBoolean() {
-        return CoreUtilities.toLowerCase(element).equals("true");
+        return CoreUtilities.toLowerCase(asString()).equals("true");
     }
 
     public String asString() {
+        if (element == null) {
+            return flattenAppendBuffer();
+        }
         return element;
     }
 
     public boolean isBoolean() {
+        String element = asString();
         return element.equalsIgnoreCase("true") || element.equalsIgnoreCase("false");
     }
 
     public boolean isDouble() {
         try {
-            if (!Double.valueOf(element).isNaN()) {
+            if (!Double.valueOf(asString()).isNaN()) {
                 return true;
             }
         }
@@ -256,7 +393,7 @@ public class ElementTag implements ObjectTag {
 
     public boolean isFloat() {
         try {
-            if (!Float.valueOf(element).isNaN()) {
+            if (!Float.valueOf(asString()).isNaN()) {
                 return true;
             }
         }
@@ -267,7 +404,7 @@ public class ElementTag implements ObjectTag {
 
     public boolean isInt() {
         try {
-            Integer val = Integer.valueOf(element.replaceAll("(%)|(\\.\\d+)", ""));
+            Integer val = Integer.valueOf(asIntegerText());
             if (val.hashCode() != 0.5) { // if intentionally always passes
                 return true;
             }
@@ -278,20 +415,21 @@ public class ElementTag implements ObjectTag {
     }
 
     public boolean isString() {
+        String element = asString();
         return (element != null && !element.isEmpty());
     }
 
     public boolean matchesType(Class<? extends ObjectTag> dClass) {
-        return ObjectFetcher.checkMatch(dClass, element);
+        return ObjectFetcher.checkMatch(dClass, asString());
     }
 
     public <T extends ObjectTag> T asType(Class<T> dClass, TagContext context) {
-        return ObjectFetcher.getObjectFrom(dClass, element, context);
+        return ObjectFetcher.getObjectFrom(dClass, asString(), context);
     }
 
     public boolean matchesEnum(Enum[] values) {
         for (Enum value : values) {
-            if (value.name().equalsIgnoreCase(element)) {
+            if (value.name().equalsIgnoreCase(asString())) {
                 return true;
             }
         }
@@ -313,18 +451,20 @@ public class ElementTag implements ObjectTag {
 
     @Override
     public ObjectTag setPrefix(String prefix) {
-        this.prefix = prefix;
+        if (!isShared) {
+            this.prefix = prefix;
+        }
         return this;
     }
 
     @Override
     public String identify() {
-        return element;
+        return asString();
     }
 
     @Override
     public String savable() {
-        return "el@" + element;
+        return "el@" + asString();
     }
 
     @Override
@@ -407,7 +547,7 @@ public class ElementTag implements ObjectTag {
 
                     attribute.fulfill(1);
 
-                    return new ElementTag(com.determineOutcome());
+                    return ElementTag.valueOf(com.determineOutcome());
                 }
                 else {
                     attribute.echoError("Unknown operator '" + operator + "'.");
@@ -425,8 +565,8 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element is a boolean ('true' or 'false').
         // -->
         registerTag("is_boolean", (attribute, object) -> {
-            String element = object.element;
-            return new ElementTag(element.equalsIgnoreCase("true")
+            String element = object.asString();
+            return ElementTag.valueOf(element.equalsIgnoreCase("true")
                     || element.equalsIgnoreCase("false"));
         });
 
@@ -438,15 +578,15 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element is an integer number (a number without a decimal point).
         // -->
         registerTag("is_integer", (attribute, object) -> {
-            if (!ArgumentHelper.matchesInteger(object.element)) {
-                return new ElementTag(false);
+            if (!ArgumentHelper.matchesInteger(object.asString())) {
+                return ElementTag.FALSE;
             }
             try {
                 object.asLong();
-                return new ElementTag(true);
+                return ElementTag.TRUE;
             }
             catch (NumberFormatException ex) {
-                return new ElementTag(false);
+                return ElementTag.FALSE;
             }
         });
 
@@ -458,14 +598,14 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element is a valid decimal number (the decimal point is optional).
         // -->
         registerTag("is_decimal", (attribute, object) -> {
-            if (!ArgumentHelper.matchesDouble(object.element)) {
-                return new ElementTag(false);
+            if (!ArgumentHelper.matchesDouble(object.asString())) {
+                return ElementTag.FALSE;
             }
             try {
-                return new ElementTag(object.asBigDecimal() != null);
+                return ElementTag.valueOf(object.asBigDecimal() != null);
             }
             catch (NumberFormatException ex) {
-                return new ElementTag(false);
+                return ElementTag.FALSE;
             }
         });
 
@@ -477,8 +617,8 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element is an odd-valued decimal number. Returns 'false' for non-numbers.
         // -->
         registerTag("is_odd", (attribute, object) -> {
-            String element = object.element;
-            return new ElementTag(ArgumentHelper.matchesDouble(element) && (object.asBigDecimal().longValue() % 2) != 0);
+            String element = object.asString();
+            return ElementTag.valueOf(ArgumentHelper.matchesDouble(element) && (object.asBigDecimal().longValue() % 2) != 0);
         });
 
         // <--[tag]
@@ -489,8 +629,8 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element is an even-valued decimal number. Returns 'false' for non-numbers.
         // -->
         registerTag("is_even", (attribute, object) -> {
-            String element = object.element;
-            return new ElementTag(ArgumentHelper.matchesDouble(element) && (object.asBigDecimal().longValue() % 2) == 0);
+            String element = object.asString();
+            return ElementTag.valueOf(ArgumentHelper.matchesDouble(element) && (object.asBigDecimal().longValue() % 2) == 0);
         });
 
         // <--[tag]
@@ -513,8 +653,8 @@ public class ElementTag implements ObjectTag {
         // Returns the element as true/false.
         // -->
         registerTag("as_boolean", (attribute, object) -> {
-            String element = object.element;
-            return new ElementTag(element.equalsIgnoreCase("true")
+            String element = object.asString();
+            return ElementTag.valueOf(element.equalsIgnoreCase("true")
                     || element.equalsIgnoreCase("t")
                     || element.equalsIgnoreCase("1"));
         }, "asboolean");
@@ -527,7 +667,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element as a decimal number, or shows an error.
         // -->
         registerTag("as_decimal", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             try {
                 return new ElementTag(Double.valueOf(element));
             }
@@ -541,9 +681,9 @@ public class ElementTag implements ObjectTag {
 
         registerTag("as_int", (attribute, object) -> {
             Deprecations.elementAsIntTag.warn(attribute.context);
-            String element = object.element;
+            String element = object.asString();
             try {
-                return new ElementTag(Double.valueOf(element).longValue());
+                return ElementTag.valueOf(Double.valueOf(element).longValue());
             }
             catch (NumberFormatException e) {
                 if (!attribute.hasAlternative()) {
@@ -565,11 +705,11 @@ public class ElementTag implements ObjectTag {
         // -->
         registerTag("truncate", (attribute, object) -> {
             try {
-                return new ElementTag(object.asBigDecimal().longValue());
+                return ElementTag.valueOf(object.asBigDecimal().longValue());
             }
             catch (NumberFormatException e) {
                 if (!attribute.hasAlternative()) {
-                    attribute.echoError("'" + object.element + "' is not a valid decimal number.");
+                    attribute.echoError("'" + object.asString() + "' is not a valid decimal number.");
                 }
                 return null;
             }
@@ -583,7 +723,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element as a number with two decimal places.
         // -->
         registerTag("as_money", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             try {
                 DecimalFormat d = new DecimalFormat("0.00", CoreUtilities.decimalFormatSymbols);
                 return new ElementTag(d.format(Double.valueOf(element)));
@@ -604,7 +744,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element as a ListTag.
         // -->
         registerTag("as_list", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, ListTag.valueOf(element, attribute.context), "ListTag", attribute.hasAlternative());
         }, "aslist");
 
@@ -616,7 +756,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element as a MapTag.
         // -->
         registerTag("as_map", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, MapTag.valueOf(element, attribute.context), "MapTag", attribute.hasAlternative());
         });
 
@@ -628,7 +768,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element as a custom object.
         // -->
         registerTag("as_custom", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, CustomObjectTag.valueOf(element, attribute.context), "Custom", attribute.hasAlternative());
         }, "ascustom");
 
@@ -641,7 +781,7 @@ public class ElementTag implements ObjectTag {
         // Note: the value must be a valid script.
         // -->
         registerTag("as_script", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, ScriptTag.valueOf(element, attribute.context), "ScriptTag", attribute.hasAlternative());
         }, "asscript");
 
@@ -654,7 +794,7 @@ public class ElementTag implements ObjectTag {
         // Note: the value must be a valid ScriptQueue.
         // -->
         registerTag("as_queue", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, QueueTag.valueOf(element, attribute.context), "QueueTag", attribute.hasAlternative());
         }, "asqueue");
 
@@ -667,7 +807,7 @@ public class ElementTag implements ObjectTag {
         // Note: the value must be a valid Duration.
         // -->
         registerTag("as_duration", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return handleNull(element, DurationTag.valueOf(element, attribute.context), "DurationTag", attribute.hasAlternative());
         }, "asduration");
 
@@ -681,7 +821,7 @@ public class ElementTag implements ObjectTag {
         // See <@link language property escaping>
         // -->
         registerTag("escaped", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return new ElementTag(EscapeTagBase.escape(element));
         });
 
@@ -693,7 +833,7 @@ public class ElementTag implements ObjectTag {
         // Returns the element, escaped for safe use in SQL.
         // -->
         registerTag("sql_escaped", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return new ElementTag(SQLEscaper.escapeSQL(element));
         });
 
@@ -707,7 +847,7 @@ public class ElementTag implements ObjectTag {
         // See <@link language property escaping>
         // -->
         registerTag("unescaped", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             return new ElementTag(EscapeTagBase.unEscape(element));
         });
 
@@ -721,7 +861,7 @@ public class ElementTag implements ObjectTag {
         // YOU KNOW WHAT YOU ARE DOING. USE AT YOUR OWN RISK.
         // -->
         registerTag("parsed", (attribute, object) -> {
-            return TagManager.tagObject(object.element, attribute.context);
+            return TagManager.tagObject(object.asString(), attribute.context);
         });
 
         /////////////////////
@@ -736,9 +876,9 @@ public class ElementTag implements ObjectTag {
         // Returns a number representing the difference between the two elements. (Uses Levenshtein logic).
         // -->
         registerTag("difference", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             String two = attribute.getContext(1);
-            return new ElementTag(CoreUtilities.getLevenshteinDistance(element, two));
+            return ElementTag.valueOf(CoreUtilities.getLevenshteinDistance(element, two));
         });
 
         // <--[tag]
@@ -749,14 +889,14 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element contains any of a list of specified elements, case sensitive.
         // -->
         registerTag("contains_any_case_sensitive", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             ListTag list = ListTag.valueOf(attribute.getContext(1), attribute.context);
             for (String list_element : list) {
                 if (element.contains(list_element)) {
-                    return new ElementTag(true);
+                    return ElementTag.TRUE;
                 }
             }
-            return new ElementTag(false);
+            return ElementTag.FALSE;
         });
         TagRunnable.ObjectInterface<ElementTag> r = tagProcessor.registeredObjectTags.get("contains_any_case_sensitive");
         registerTag("contains_any_case_sensitive_text", r);
@@ -769,15 +909,15 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element contains any of a list of specified elements, case insensitive.
         // -->
         registerTag("contains_any", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             ListTag list = ListTag.valueOf(CoreUtilities.toLowerCase(attribute.getContext(1)), attribute.context);
             String ellow = CoreUtilities.toLowerCase(element);
             for (String list_element : list) {
                 if (ellow.contains(list_element)) {
-                    return new ElementTag(true);
+                    return ElementTag.TRUE;
                 }
             }
-            return new ElementTag(false);
+            return ElementTag.FALSE;
         });
         r = tagProcessor.registeredObjectTags.get("contains_any");
         registerTag("contains_any_text", r);
@@ -790,13 +930,13 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element contains a specified element, case sensitive.
         // -->
         registerTag("contains_case_sensitive", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             String contains = attribute.getContext(1);
             if (element.contains(contains)) {
-                return new ElementTag("true");
+                return ElementTag.TRUE;
             }
             else {
-                return new ElementTag("false");
+                return ElementTag.FALSE;
             }
         });
         r = tagProcessor.registeredObjectTags.get("contains_case_sensitive");
@@ -811,23 +951,23 @@ public class ElementTag implements ObjectTag {
         // regular expression by prefixing the element with regex:
         // -->
         registerTag("contains", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             String contains = attribute.getContext(1);
 
             if (CoreUtilities.toLowerCase(contains).startsWith("regex:")) {
 
-                if (Pattern.compile(contains.substring(("regex:").length()), Pattern.CASE_INSENSITIVE).matcher(element).matches()) {
-                    return new ElementTag("true");
+                if (RegexCache.getPattern(contains.substring(("regex:").length()), Pattern.CASE_INSENSITIVE).matcher(element).matches()) {
+                    return ElementTag.TRUE;
                 }
                 else {
-                    return new ElementTag("false");
+                    return ElementTag.FALSE;
                 }
             }
             else if (CoreUtilities.toLowerCase(element).contains(CoreUtilities.toLowerCase(contains))) {
-                return new ElementTag("true");
+                return ElementTag.TRUE;
             }
             else {
-                return new ElementTag("false");
+                return ElementTag.FALSE;
             }
         });
         r = tagProcessor.registeredObjectTags.get("contains");
@@ -841,15 +981,15 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element contains all of the specified strings, case insensitive.
         // -->
         registerTag("contains_all", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             ListTag list = ListTag.valueOf(CoreUtilities.toLowerCase(attribute.getContext(1)), attribute.context);
             String ellow = CoreUtilities.toLowerCase(element);
             for (String list_element : list) {
                 if (!ellow.contains(list_element)) {
-                    return new ElementTag("false");
+                    return ElementTag.FALSE;
                 }
             }
-            return new ElementTag("true");
+            return ElementTag.TRUE;
         });
         r = tagProcessor.registeredObjectTags.get("contains_all");
         registerTag("contains_all_text", r);
@@ -862,14 +1002,14 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element contains all of the specified strings, case sensitive.
         // -->
         registerTag("contains_all_case_sensitive", (attribute, object) -> {
-            String element = object.element;
+            String element = object.asString();
             ListTag list = ListTag.valueOf(attribute.getContext(1), attribute.context);
             for (String list_element : list) {
                 if (!element.contains(list_element)) {
-                    return new ElementTag("false");
+                    return ElementTag.FALSE;
                 }
             }
-            return new ElementTag("true");
+            return ElementTag.TRUE;
         });
         r = tagProcessor.registeredObjectTags.get("contains_all_case_sensitive");
         registerTag("contains_all_case_sensitive_text", r);
@@ -882,7 +1022,7 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element ends with a specified element.
         // -->
         registerTag("ends_with", (attribute, object) -> {
-            return new ElementTag(CoreUtilities.toLowerCase(object.element).
+            return ElementTag.valueOf(CoreUtilities.toLowerCase(object.asString()).
                     endsWith(CoreUtilities.toLowerCase(attribute.getContext(1))));
         }, "endswith");
 
@@ -898,7 +1038,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.equals_case_sensitive[...] must have a value.");
                 return null;
             }
-            return new ElementTag(object.element.equals(attribute.getContext(1)));
+            return ElementTag.valueOf(object.asString().equals(attribute.getContext(1)));
         }, "equals_with_case");
 
         // <--[tag]
@@ -913,7 +1053,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.matches[...] must have a value.");
                 return null;
             }
-            return new ElementTag(object.element.matches(attribute.getContext(1)));
+            return ElementTag.valueOf(RegexCache.getPattern(attribute.getContext(1)).matcher(object.asString()).matches());
         });
 
         // <--[tag]
@@ -931,7 +1071,7 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             String regex = attribute.getContext(1);
-            Matcher m = Pattern.compile(regex).matcher(object.element);
+            Matcher m = RegexCache.getPattern(regex).matcher(object.asString());
             if (!m.matches()) {
                 return null;
             }
@@ -954,7 +1094,7 @@ public class ElementTag implements ObjectTag {
         // Returns the length of the element.
         // -->
         registerTag("length", (attribute, object) -> {
-            return new ElementTag(object.element.length());
+            return ElementTag.valueOf(object.asString().length());
         });
 
         // <--[tag]
@@ -966,7 +1106,7 @@ public class ElementTag implements ObjectTag {
         // IE, true returns false and false returns true.
         // -->
         registerTag("not", (attribute, object) -> {
-            return new ElementTag(!object.element.equalsIgnoreCase("true"));
+            return ElementTag.valueOf(!object.asString().equalsIgnoreCase("true"));
         });
 
         // <--[tag]
@@ -977,7 +1117,7 @@ public class ElementTag implements ObjectTag {
         // Returns whether both the element and the second element are true.
         // -->
         registerTag("and", (attribute, object) -> {
-            return new ElementTag(object.element.equalsIgnoreCase("true") && attribute.getContext(1).equalsIgnoreCase("true"));
+            return ElementTag.valueOf(object.asString().equalsIgnoreCase("true") && attribute.getContext(1).equalsIgnoreCase("true"));
         });
 
         // <--[tag]
@@ -988,7 +1128,7 @@ public class ElementTag implements ObjectTag {
         // Returns whether either the element or the second element are true.
         // -->
         registerTag("or", (attribute, object) -> {
-            return new ElementTag(object.element.equalsIgnoreCase("true") || attribute.getContext(1).equalsIgnoreCase("true"));
+            return ElementTag.valueOf(object.asString().equalsIgnoreCase("true") || attribute.getContext(1).equalsIgnoreCase("true"));
         });
 
         // <--[tag]
@@ -999,7 +1139,7 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element and the second element are true and false (exclusive or).
         // -->
         registerTag("xor", (attribute, object) -> {
-            return new ElementTag(object.element.equalsIgnoreCase("true") != attribute.getContext(1).equalsIgnoreCase("true"));
+            return ElementTag.valueOf(object.asString().equalsIgnoreCase("true") != attribute.getContext(1).equalsIgnoreCase("true"));
         });
 
         // <--[tag]
@@ -1010,7 +1150,7 @@ public class ElementTag implements ObjectTag {
         // Returns whether the element starts with a specified element.
         // -->
         registerTag("starts_with", (attribute, object) -> {
-            return new ElementTag(CoreUtilities.toLowerCase(object.element).startsWith(CoreUtilities.toLowerCase(attribute.getContext(1))));
+            return ElementTag.valueOf(CoreUtilities.toLowerCase(object.asString()).startsWith(CoreUtilities.toLowerCase(attribute.getContext(1))));
         }, "startswith");
 
         // <--[tag]
@@ -1026,7 +1166,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.index_of[...] must have a value.");
                 return null;
             }
-            return new ElementTag(CoreUtilities.toLowerCase(object.element)
+            return ElementTag.valueOf(CoreUtilities.toLowerCase(object.asString())
                     .indexOf(CoreUtilities.toLowerCase(attribute.getContext(1))) + 1);
         });
 
@@ -1043,7 +1183,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.last_index_of[...] must have a value.");
                 return null;
             }
-            return new ElementTag(CoreUtilities.toLowerCase(object.element)
+            return ElementTag.valueOf(CoreUtilities.toLowerCase(object.asString())
                     .lastIndexOf(CoreUtilities.toLowerCase(attribute.getContext(1))) + 1);
         });
 
@@ -1061,11 +1201,11 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             int index = attribute.getIntContext(1) - 1;
-            if (index < 0 || index >= object.element.length()) {
+            if (index < 0 || index >= object.asString().length()) {
                 return null;
             }
             else {
-                return new ElementTag(String.valueOf(object.element.charAt(index)));
+                return new ElementTag(String.valueOf(object.asString().charAt(index)));
             }
         });
 
@@ -1088,9 +1228,9 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             int repeatTimes = attribute.getIntContext(1);
-            StringBuilder result = new StringBuilder(object.element.length() * repeatTimes);
+            StringBuilder result = new StringBuilder(object.asString().length() * repeatTimes);
             for (int i = 0; i < repeatTimes; i++) {
-                result.append(object.element);
+                result.append(object.asString());
             }
             return new ElementTag(result.toString());
         });
@@ -1109,9 +1249,9 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             String delimiter = attribute.getContext(1);
-            if (CoreUtilities.toLowerCase(object.element).contains(CoreUtilities.toLowerCase(delimiter))) {
-                return new ElementTag(object.element.substring
-                        (CoreUtilities.toLowerCase(object.element).lastIndexOf(CoreUtilities.toLowerCase(delimiter)) + delimiter.length()));
+            if (CoreUtilities.toLowerCase(object.asString()).contains(CoreUtilities.toLowerCase(delimiter))) {
+                return new ElementTag(object.asString().substring
+                        (CoreUtilities.toLowerCase(object.asString()).lastIndexOf(CoreUtilities.toLowerCase(delimiter)) + delimiter.length()));
             }
             else {
                 return new ElementTag("");
@@ -1132,9 +1272,9 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             String delimiter = attribute.getContext(1);
-            if (CoreUtilities.toLowerCase(object.element).contains(CoreUtilities.toLowerCase(delimiter))) {
-                return new ElementTag(object.element.substring
-                        (CoreUtilities.toLowerCase(object.element).indexOf(CoreUtilities.toLowerCase(delimiter)) + delimiter.length()));
+            if (CoreUtilities.toLowerCase(object.asString()).contains(CoreUtilities.toLowerCase(delimiter))) {
+                return new ElementTag(object.asString().substring
+                        (CoreUtilities.toLowerCase(object.asString()).indexOf(CoreUtilities.toLowerCase(delimiter)) + delimiter.length()));
             }
             else {
                 return new ElementTag("");
@@ -1155,12 +1295,12 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             String delimiter = attribute.getContext(1);
-            if (CoreUtilities.toLowerCase(object.element).contains(CoreUtilities.toLowerCase(delimiter))) {
-                return new ElementTag(object.element.substring
-                        (0, CoreUtilities.toLowerCase(object.element).lastIndexOf(CoreUtilities.toLowerCase(delimiter))));
+            if (CoreUtilities.toLowerCase(object.asString()).contains(CoreUtilities.toLowerCase(delimiter))) {
+                return new ElementTag(object.asString().substring
+                        (0, CoreUtilities.toLowerCase(object.asString()).lastIndexOf(CoreUtilities.toLowerCase(delimiter))));
             }
             else {
-                return new ElementTag(object.element);
+                return new ElementTag(object.asString());
             }
         });
 
@@ -1178,12 +1318,12 @@ public class ElementTag implements ObjectTag {
                 return null;
             }
             String delimiter = attribute.getContext(1);
-            if (CoreUtilities.toLowerCase(object.element).contains(CoreUtilities.toLowerCase(delimiter))) {
-                return new ElementTag(object.element.substring
-                        (0, CoreUtilities.toLowerCase(object.element).indexOf(CoreUtilities.toLowerCase(delimiter))));
+            if (CoreUtilities.toLowerCase(object.asString()).contains(CoreUtilities.toLowerCase(delimiter))) {
+                return new ElementTag(object.asString().substring
+                        (0, CoreUtilities.toLowerCase(object.asString()).indexOf(CoreUtilities.toLowerCase(delimiter))));
             }
             else {
-                return new ElementTag(object.element);
+                return new ElementTag(object.asString());
             }
         });
 
@@ -1223,13 +1363,13 @@ public class ElementTag implements ObjectTag {
             }
 
             if (replace.startsWith("regex:")) {
-                return new ElementTag(object.element.replaceAll(replace.substring("regex:".length()), replacement));
+                return new ElementTag(RegexCache.getPattern(replace.substring("regex:".length())).matcher(object.asString()).replaceAll(replacement));
             }
             if (replace.startsWith("firstregex:")) {
-                return new ElementTag(object.element.replaceFirst(replace.substring("firstregex:".length()), replacement));
+                return new ElementTag(RegexCache.getPattern(replace.substring("firstregex:".length())).matcher(object.asString()).replaceFirst(replacement));
             }
             else {
-                return new ElementTag(object.element.replaceAll("(?i)" + Pattern.quote(replace), replacement));
+                return new ElementTag(RegexCache.getLiteralIgnoreCase(replace).matcher(object.asString()).replaceAll(replacement));
             }
         });
         // <--[tag]
@@ -1268,15 +1408,15 @@ public class ElementTag implements ObjectTag {
                     DecimalFormat format = new DecimalFormat(attribute.getContext(1), CoreUtilities.decimalFormatSymbols);
                     return new ElementTag(format.format(object.asBigDecimal()));
                 }
-                int decimal = object.element.indexOf('.');
+                int decimal = object.asString().indexOf('.');
                 String shortelement;
                 String afterdecimal;
                 if (decimal != -1) {
-                    shortelement = object.element.substring(0, decimal);
-                    afterdecimal = object.element.substring(decimal);
+                    shortelement = object.asString().substring(0, decimal);
+                    afterdecimal = object.asString().substring(decimal);
                 }
                 else {
-                    shortelement = object.element;
+                    shortelement = object.asString();
                     afterdecimal = "";
                 }
                 String intform = Long.valueOf(shortelement.replace("%", "")).toString();
@@ -1305,8 +1445,8 @@ public class ElementTag implements ObjectTag {
         // -->
         registerTag("to_list", (attribute, object) -> {
             ListTag list = new ListTag();
-            for (int i = 0; i < object.element.length(); i++) {
-                list.add(String.valueOf(object.element.charAt(i)));
+            for (int i = 0; i < object.asString().length(); i++) {
+                list.add(String.valueOf(object.asString().charAt(i)));
             }
             return list;
         });
@@ -1319,7 +1459,7 @@ public class ElementTag implements ObjectTag {
         // Returns the value of an element minus any leading or trailing whitespace.
         // -->
         registerTag("trim", (attribute, object) -> {
-            return new ElementTag(object.element.trim());
+            return new ElementTag(object.asString().trim());
         });
 
         // <--[tag]
@@ -1333,7 +1473,7 @@ public class ElementTag implements ObjectTag {
         // -->
         registerTag("split_lines", (attribute, object) -> {
             int characterCount = attribute.getIntContext(1);
-            return new ElementTag(CoreUtilities.splitLinesByCharacterCount(object.element, characterCount));
+            return new ElementTag(CoreUtilities.splitLinesByCharacterCount(object.asString(), characterCount));
         });
 
         // <--[tag]
@@ -1345,12 +1485,12 @@ public class ElementTag implements ObjectTag {
         // Numbers and symbols will return false.
         // -->
         registerTag("is_uppercase", (attribute, object) -> {
-            for (char c : object.element.toCharArray()) {
+            for (char c : object.asString().toCharArray()) {
                 if (!Character.isUpperCase(c)) {
-                    return new ElementTag(false);
+                    return ElementTag.FALSE;
                 }
             }
-            return new ElementTag(true);
+            return ElementTag.TRUE;
         });
 
         // <--[tag]
@@ -1362,12 +1502,12 @@ public class ElementTag implements ObjectTag {
         // Numbers and symbols will return false.
         // -->
         registerTag("is_lowercase", (attribute, object) -> {
-            for (char c : object.element.toCharArray()) {
+            for (char c : object.asString().toCharArray()) {
                 if (!Character.isLowerCase(c)) {
-                    return new ElementTag(false);
+                    return ElementTag.FALSE;
                 }
             }
-            return new ElementTag(true);
+            return ElementTag.TRUE;
         });
 
         // <--[tag]
@@ -1378,7 +1518,7 @@ public class ElementTag implements ObjectTag {
         // Returns the value of an element in all uppercase letters.
         // -->
         registerTag("to_uppercase", (attribute, object) -> {
-            return new ElementTag(object.element.toUpperCase());
+            return new ElementTag(object.asString().toUpperCase());
         }, "upper");
 
         // <--[tag]
@@ -1389,7 +1529,7 @@ public class ElementTag implements ObjectTag {
         // Returns the value of an element in all lowercase letters.
         // -->
         registerTag("to_lowercase", (attribute, object) -> {
-            return new ElementTag(CoreUtilities.toLowerCase(object.element));
+            return new ElementTag(CoreUtilities.toLowerCase(object.asString()));
         }, "lower");
 
         // <--[tag]
@@ -1400,15 +1540,15 @@ public class ElementTag implements ObjectTag {
         // Returns The Value Of An ElementTag In Title Case.
         // -->
         registerTag("to_titlecase", (attribute, object) -> {
-            if (object.element.length() == 0) {
+            if (object.asString().length() == 0) {
                 return new ElementTag("");
             }
-            StringBuilder TitleCase = new StringBuilder(object.element.length());
-            String Upper = object.element.toUpperCase();
-            String Lower = CoreUtilities.toLowerCase(object.element);
+            StringBuilder TitleCase = new StringBuilder(object.asString().length());
+            String Upper = object.asString().toUpperCase();
+            String Lower = CoreUtilities.toLowerCase(object.asString());
             TitleCase.append(Upper.charAt(0));
-            for (int i = 1; i < object.element.length(); i++) {
-                if (object.element.charAt(i - 1) == ' ') {
+            for (int i = 1; i < object.asString().length(); i++) {
+                if (object.asString().charAt(i - 1) == ' ') {
                     TitleCase.append(Upper.charAt(i));
                 }
                 else {
@@ -1438,21 +1578,21 @@ public class ElementTag implements ObjectTag {
                 ending_index = new ElementTag(attribute.getContext(1).split(",")[1]).asInt();
             }
             else {
-                ending_index = object.element.length();
+                ending_index = object.asString().length();
             }
             if (beginning_index < 0) {
                 beginning_index = 0;
             }
-            if (beginning_index > object.element.length()) {
-                beginning_index = object.element.length();
+            if (beginning_index > object.asString().length()) {
+                beginning_index = object.asString().length();
             }
-            if (ending_index > object.element.length()) {
-                ending_index = object.element.length();
+            if (ending_index > object.asString().length()) {
+                ending_index = object.asString().length();
             }
             if (ending_index < beginning_index) {
                 ending_index = beginning_index;
             }
-            return new ElementTag(object.element.substring(beginning_index, ending_index));
+            return new ElementTag(object.asString().substring(beginning_index, ending_index));
         }, "substr");
 
         // <--[tag]
@@ -1464,15 +1604,16 @@ public class ElementTag implements ObjectTag {
         // If a split string is unspecified, splits by space.
         // -->
         registerTag("split", (attribute, object) -> {
-            if (object.element.isEmpty()) {
+            if (object.asString().isEmpty()) {
                 return new ListTag();
             }
             String split_string = (attribute.hasContext(1) ? attribute.getContext(1) : " ");
+            Pattern splitPattern;
             if (CoreUtilities.toLowerCase(split_string).startsWith("regex:")) {
-                split_string = split_string.split(":", 2)[1];
+                splitPattern = RegexCache.getPattern(split_string.substring("regex:".length()));
             }
             else {
-                split_string = "(?i)" + Pattern.quote(split_string);
+                splitPattern = RegexCache.getLiteralIgnoreCase(split_string);
             }
             String[] split;
 
@@ -1488,10 +1629,10 @@ public class ElementTag implements ObjectTag {
             if (attribute.startsWith("limit", 2)) {
                 int limit = (attribute.hasContext(2) ? attribute.getIntContext(2) : 1);
                 attribute.fulfill(1);
-                split = object.element.split(split_string, limit);
+                split = splitPattern.split(object.asString(), limit);
             }
             else {
-                split = object.element.split(split_string);
+                split = splitPattern.split(object.asString());
             }
             return new ListTag(Arrays.asList(split));
         });
@@ -1525,11 +1666,11 @@ public class ElementTag implements ObjectTag {
                 attribute.fulfill(1);
             }
             StringBuilder padded = new StringBuilder();
-            length -= object.element.length();
+            length -= object.asString().length();
             while (padded.length() < length) {
                 padded.append(with);
             }
-            padded.append(object.element);
+            padded.append(object.asString());
             return new ElementTag(padded.toString());
         });
 
@@ -1561,7 +1702,7 @@ public class ElementTag implements ObjectTag {
                 with = String.valueOf(attribute.getContext(2).charAt(0));
                 attribute.fulfill(1);
             }
-            StringBuilder padded = new StringBuilder(object.element);
+            StringBuilder padded = new StringBuilder(object.asString());
             while (padded.length() < length) {
                 padded.append(with);
             }
@@ -1630,7 +1771,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag(ele.asLong() + attribute.getLongContext(1));
+            return ElementTag.valueOf(ele.asLong() + attribute.getLongContext(1));
         });
 
         // <--[tag]
@@ -1646,7 +1787,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag(ele.asLong() / attribute.getLongContext(1));
+            return ElementTag.valueOf(ele.asLong() / attribute.getLongContext(1));
         });
 
         // <--[tag]
@@ -1662,7 +1803,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag(ele.asLong() * attribute.getLongContext(1));
+            return ElementTag.valueOf(ele.asLong() * attribute.getLongContext(1));
         });
 
         // <--[tag]
@@ -1678,7 +1819,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag(ele.asLong() - attribute.getLongContext(1));
+            return ElementTag.valueOf(ele.asLong() - attribute.getLongContext(1));
         });
 
         // <--[tag]
@@ -2048,7 +2189,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag((long) Math.ceil(ele.asDouble()));
+            return ElementTag.valueOf((long) Math.ceil(ele.asDouble()));
         });
 
         // <--[tag]
@@ -2063,7 +2204,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag((long) Math.floor(ele.asDouble()));
+            return ElementTag.valueOf((long) Math.floor(ele.asDouble()));
         });
 
         // <--[tag]
@@ -2160,7 +2301,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("Element '" + ele + "' is not a valid decimal number!");
                 return null;
             }
-            return new ElementTag(Math.round(ele.asDouble()));
+            return ElementTag.valueOf(Math.round(ele.asDouble()));
         });
 
         // <--[tag]
@@ -2171,7 +2312,7 @@ public class ElementTag implements ObjectTag {
         // Encodes the element using Base64 encoding.
         // -->
         registerTag("base64_encode", (attribute, object) -> {
-            String encoded = Base64.getEncoder().encodeToString(object.element.getBytes());
+            String encoded = Base64.getEncoder().encodeToString(object.asString().getBytes());
             return new ElementTag(encoded);
         });
 
@@ -2183,7 +2324,7 @@ public class ElementTag implements ObjectTag {
         // Decodes the element using Base64 encoding. Must be valid Base64 input.
         // -->
         registerTag("base64_decode", (attribute, object) -> {
-            String decoded = new String(Base64.getDecoder().decode(object.element));
+            String decoded = new String(Base64.getDecoder().decode(object.asString()));
             return new ElementTag(decoded);
         });
 
@@ -2195,7 +2336,7 @@ public class ElementTag implements ObjectTag {
         // Encodes the element using hexadecimal encoding.
         // -->
         registerTag("hex_encode", (attribute, object) -> {
-            String encoded = DatatypeConverter.printHexBinary(object.element.getBytes());
+            String encoded = DatatypeConverter.printHexBinary(object.asString().getBytes());
             return new ElementTag(encoded);
         });
 
@@ -2207,7 +2348,7 @@ public class ElementTag implements ObjectTag {
         // Decodes the element using hexadecimal encoding. Must be valid hexadecimal input.
         // -->
         registerTag("hex_decode", (attribute, object) -> {
-            String decoded = new String(DatatypeConverter.parseHexBinary(object.element));
+            String decoded = new String(DatatypeConverter.parseHexBinary(object.asString()));
             return new ElementTag(decoded);
         });
 
@@ -2220,7 +2361,7 @@ public class ElementTag implements ObjectTag {
         // -->
         registerTag("url_encode", (attribute, object) -> {
             try {
-                String encoded = URLEncoder.encode(object.element, "UTF-8");
+                String encoded = URLEncoder.encode(object.asString(), "UTF-8");
                 return new ElementTag(encoded);
             }
             catch (Exception e) {
@@ -2238,7 +2379,7 @@ public class ElementTag implements ObjectTag {
         // -->
         registerTag("url_decode", (attribute, object) -> {
             try {
-                String decoded = URLDecoder.decode(object.element, "UTF-8");
+                String decoded = URLDecoder.decode(object.asString(), "UTF-8");
                 return new ElementTag(decoded);
             }
             catch (Exception e) {
@@ -2265,7 +2406,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.matches_character_set[...] must have a value.");
                 return null;
             }
-            return new ElementTag(new AsciiMatcher(attribute.getContext(1)).isOnlyMatches(object.element));
+            return ElementTag.valueOf(new AsciiMatcher(attribute.getContext(1)).isOnlyMatches(object.asString()));
         });
 
         // <--[tag]
@@ -2286,7 +2427,7 @@ public class ElementTag implements ObjectTag {
                 attribute.echoError("The tag ElementTag.trim_to_character_set[...] must have a value.");
                 return null;
             }
-            return new ElementTag(new AsciiMatcher(attribute.getContext(1)).trimToMatches(object.element));
+            return new ElementTag(new AsciiMatcher(attribute.getContext(1)).trimToMatches(object.asString()));
         });
 
         // <--[tag]
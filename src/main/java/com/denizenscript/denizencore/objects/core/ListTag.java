@@ -7,11 +7,13 @@ import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.tags.TagRunnable;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.containers.core.ProcedureScriptContainer;
+import com.denizenscript.denizencore.scripts.containers.ScriptContainer;
 import com.denizenscript.denizencore.scripts.queues.core.InstantQueue;
 import com.denizenscript.denizencore.tags.ObjectTagProcessor;
 import com.denizenscript.denizencore.utilities.AsciiMatcher;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.NaturalOrderComparator;
+import com.denizenscript.denizencore.utilities.RegexCache;
 import com.denizenscript.denizencore.utilities.debugging.Debuggable;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
@@ -103,6 +105,8 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
     @Override
     public String set(int index, String value) {
         String result = super.set(index, value);
+        caseInsensitiveIndex = null;
+        numericValues = null;
         objectForms.set(index, new ElementTag(value));
         return result;
     }
@@ -125,6 +129,8 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
     public void setObject(int index, ObjectTag obj) {
         objectForms.set(index, obj);
         super.set(index, obj.toString());
+        caseInsensitiveIndex = null;
+        numericValues = null;
     }
 
     public ObjectTag getObject(int id) {
@@ -354,6 +360,11 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
 
     // Unizen end
 
+    private void addEntryFrom(ListTag source, int index) {
+        objectForms.add(source.objectForms.get(index));
+        super.add(source.get(index));
+    }
+
     public ListTag addObjects(List<ObjectTag> ObjectTags) {
         for (ObjectTag obj : ObjectTags) {
             addObject(obj);
@@ -432,22 +443,199 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
     public ListTag deduplicate() {
         ListTag list = new ListTag();
         int size = size();
+        HashSet<String> seen = new HashSet<>(size * 2);
         for (int i = 0; i < size; i++) {
-            String entry = get(i);
-            boolean duplicate = false;
-            for (int x = 0; x < i; x++) {
-                if (get(x).equalsIgnoreCase(entry)) {
-                    duplicate = true;
-                    break;
-                }
-            }
-            if (!duplicate) {
+            if (seen.add(caseInsensitiveKey(get(i)))) {
                 list.addObject(objectForms.get(i));
             }
         }
         return list;
     }
 
+    /**
+     * Lists smaller than this are just scanned linearly rather than being indexed.
+     */
+    public static int caseInsensitiveIndexMinimumSize = 16;
+
+    /**
+     * Returns a key for the string, such that two strings have the same key exactly when 'String.equalsIgnoreCase' considers them equal.
+     * Unlike CoreUtilities.toLowerCase, this handles case for non-ASCII text as well.
+     */
+    public static String caseInsensitiveKey(String str) {
+        char[] chars = null;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            char folded;
+            if (c < 128) {
+                folded = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+            else {
+                folded = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            if (folded != c) {
+                if (chars == null) {
+                    chars = str.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars == null ? str : new String(chars);
+    }
+
+    private HashMap<String, Integer> caseInsensitiveIndex;
+
+    private int caseInsensitiveIndexModCount;
+
+    /**
+     * Returns a map of each entry's 'caseInsensitiveKey' to the index of its first appearance in this list.
+     * The map is cached on the list and rebuilt only after the list has been modified.
+     */
+    public Map<String, Integer> getCaseInsensitiveIndex() {
+        if (caseInsensitiveIndex == null || caseInsensitiveIndexModCount != modCount) {
+            HashMap<String, Integer> index = new HashMap<>(size() * 2);
+            for (int i = size() - 1; i >= 0; i--) {
+                index.put(caseInsensitiveKey(get(i)), i);
+            }
+            caseInsensitiveIndex = index;
+            caseInsensitiveIndexModCount = modCount;
+        }
+        return caseInsensitiveIndex;
+    }
+
+    /**
+     * Returns a set of all entries in this list, lowercased.
+     */
+    public HashSet<String> toLowercaseSet() {
+        HashSet<String> result = new HashSet<>(size() * 2);
+        for (String str : this) {
+            result.add(CoreUtilities.toLowerCase(str));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a set of the 'caseInsensitiveKey' of all entries in this list.
+     */
+    public HashSet<String> toCaseInsensitiveKeySet() {
+        if (caseInsensitiveIndex != null && caseInsensitiveIndexModCount == modCount) {
+            return new HashSet<>(caseInsensitiveIndex.keySet());
+        }
+        HashSet<String> result = new HashSet<>(size() * 2);
+        for (String str : this) {
+            result.add(caseInsensitiveKey(str));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first entry that matches the input (by 'String.equalsIgnoreCase'), or -1 if none does.
+     */
+    public int indexOfCaseInsensitive(String val) {
+        if (size() < caseInsensitiveIndexMinimumSize) {
+            for (int i = 0; i < size(); i++) {
+                if (get(i).equalsIgnoreCase(val)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        Integer index = getCaseInsensitiveIndex().get(caseInsensitiveKey(val));
+        return index == null ? -1 : index;
+    }
+
+    private double[] numericValues;
+
+    private int numericValuesModCount;
+
+    /**
+     * Returns the numeric value of each entry in this list, or NaN for entries that aren't numbers.
+     * The array is cached on the list and rebuilt only after the list has been modified, so it must not be modified by the caller.
+     */
+    public double[] getNumericValues() {
+        if (numericValues == null || numericValuesModCount != modCount) {
+            double[] values = new double[size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = parseNumber(get(i));
+            }
+            numericValues = values;
+            numericValuesModCount = modCount;
+        }
+        return numericValues;
+    }
+
+    private static double parseNumber(String str) {
+        if (!ArgumentHelper.matchesDouble(str)) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(str);
+        }
+        catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Returns the index of the first lowest (or highest) number in the list, or -1 if the list has no numbers.
+     * Entries are compared by their cached numeric values, and only entries whose values are equal as doubles are compared exactly.
+     */
+    private int getExtremeIndex(boolean highest) {
+        double[] values = getNumericValues();
+        int best = -1;
+        boolean tied = false;
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (best == -1 || (highest ? value > values[best] : value < values[best])) {
+                best = i;
+                tied = false;
+            }
+            else if (value == values[best] && !get(i).equals(get(best))) {
+                tied = true;
+            }
+        }
+        if (!tied) {
+            return best;
+        }
+        double bestValue = values[best];
+        BigDecimal bestExact = null;
+        for (int i = best; i < values.length; i++) {
+            if (values[i] == bestValue) {
+                BigDecimal exact = new ElementTag(get(i)).asBigDecimal();
+                if (bestExact == null || (highest ? exact.compareTo(bestExact) > 0 : exact.compareTo(bestExact) < 0)) {
+                    bestExact = exact;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the indices of the given keys, in order from the lowest key to the highest.
+     * Equal keys keep their original order, and NaN keys come after all numbers.
+     */
+    private static Integer[] getSortedOrder(double[] keys) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+        return order;
+    }
+
+    private ListTag reorderedCopy(Integer[] order) {
+        ListTag result = new ListTag();
+        result.ensureCapacity(order.length);
+        result.objectForms.ensureCapacity(order.length);
+        for (int index : order) {
+            result.addEntryFrom(this, index);
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return identify();
@@ -769,7 +957,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // For example: a list of "one|two|three" will return "3".
         // -->
         registerTag("size", (attribute, object) -> {
-            return new ElementTag(object.size());
+            return ElementTag.valueOf(object.size());
         });
 
         // <--[tag]
@@ -780,7 +968,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // For example: a list of "" returns true, while "one" returns false.
         // -->
         registerTag("is_empty", (attribute, object) -> {
-            return new ElementTag(object.isEmpty());
+            return ElementTag.valueOf(object.isEmpty());
         });
 
         // <--[tag]
@@ -930,18 +1118,13 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 Debug.echoError("The tag ListTag.exclude[...] must have a value.");
                 return null;
             }
-            ListTag exclusions = getListFor(attribute.getContextObject(1), attribute.context);
-            // Create a new ListTag that will contain the exclusions
-            ListTag copy = new ListTag(object);
-            // Iterate through
-            for (String exclusion : exclusions) {
-                for (int i = 0; i < copy.size(); i++) {
-                    if (copy.get(i).equalsIgnoreCase(exclusion)) {
-                        copy.remove(i--);
-                    }
+            HashSet<String> exclusions = getListFor(attribute.getContextObject(1), attribute.context).toCaseInsensitiveKeySet();
+            ListTag copy = new ListTag();
+            for (int i = 0; i < object.size(); i++) {
+                if (!exclusions.contains(caseInsensitiveKey(object.get(i)))) {
+                    copy.addObject(object.getObject(i));
                 }
             }
-            // Return the modified list
             return copy;
         });
 
@@ -996,10 +1179,12 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 Debug.echoError("The tag ListTag.shared_contents[...] must have a value.");
                 return null;
             }
-            ListTag secondList = getListFor(attribute.getContextObject(1), attribute.context);
+            HashSet<String> secondList = getListFor(attribute.getContextObject(1), attribute.context).toLowercaseSet();
+            HashSet<String> added = new HashSet<>();
             ListTag output = new ListTag();
             for (String val : object) {
-                if (secondList.containsCaseInsensitive(val) && !output.containsCaseInsensitive(val)) {
+                String low = CoreUtilities.toLowerCase(val);
+                if (secondList.contains(low) && added.add(low)) {
                     output.add(val);
                 }
             }
@@ -1039,7 +1224,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
 
             if (replace.startsWith("regex:")) {
                 String regex = replace.substring("regex:".length());
-                Pattern tempPat = Pattern.compile(regex);
+                Pattern tempPat = RegexCache.getPattern(regex);
                 for (int i = 0; i < object.size(); i++) {
                     if (tempPat.matcher(object.get(i)).matches()) {
                         if (replacement != null) {
@@ -1211,9 +1396,14 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 Debug.echoError("The tag ListTag.find_all[...] must have a value.");
                 return null;
             }
+            String test = attribute.getContext(1);
             ListTag positions = new ListTag();
-            for (int i = 0; i < object.size(); i++) {
-                if (object.get(i).equalsIgnoreCase(attribute.getContext(1))) {
+            int first = object.indexOfCaseInsensitive(test);
+            if (first == -1) {
+                return positions;
+            }
+            for (int i = first; i < object.size(); i++) {
+                if (object.get(i).equalsIgnoreCase(test)) {
                     positions.add(String.valueOf(i + 1));
                 }
             }
@@ -1237,10 +1427,10 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
             String test = attribute.getContext(1).toUpperCase();
             for (int i = 0; i < object.size(); i++) {
                 if (object.get(i).toUpperCase().contains(test)) { // TODO: Efficiency
-                    return new ElementTag(i + 1);
+                    return ElementTag.valueOf(i + 1);
                 }
             }
-            return new ElementTag(-1);
+            return ElementTag.valueOf(-1);
         });
 
         // <--[tag]
@@ -1257,19 +1447,8 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 Debug.echoError("The tag ListTag.find[...] must have a value.");
                 return null;
             }
-            for (int i = 0; i < object.size(); i++) {
-                if (object.get(i).equalsIgnoreCase(attribute.getContext(1))) {
-                    return new ElementTag(i + 1);
-                }
-            }
-            // TODO: This should be find_partial or something
-            /*
-            for (int i = 0; i < size(); i++) {
-                if (get(i).toUpperCase().contains(attribute.getContext(1).toUpperCase()))
-                    return new Element(i + 1);
-            }
-            */
-            return new ElementTag(-1);
+            int index = object.indexOfCaseInsensitive(attribute.getContext(1));
+            return ElementTag.valueOf(index == -1 ? -1 : index + 1);
         });
 
         // <--[tag]
@@ -1291,7 +1470,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                     count++;
                 }
             }
-            return new ElementTag(count);
+            return ElementTag.valueOf(count);
         });
 
         // <--[tag]
@@ -1302,9 +1481,9 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // -->
         registerTag("sum", (attribute, object) -> {
             double sum = 0;
-            for (String entry : object) {
-                if (ArgumentHelper.matchesDouble(entry)) {
-                    sum += Double.parseDouble(entry);
+            for (double value : object.getNumericValues()) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
                 }
             }
             return new ElementTag(sum);
@@ -1318,12 +1497,12 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // -->
         registerTag("average", (attribute, object) -> {
             if (object.isEmpty()) {
-                return new ElementTag(0);
+                return ElementTag.valueOf(0);
             }
             double sum = 0;
-            for (String entry : object) {
-                if (ArgumentHelper.matchesDouble(entry)) {
-                    sum += Double.parseDouble(entry);
+            for (double value : object.getNumericValues()) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
                 }
             }
             return new ElementTag(sum / object.size());
@@ -1375,17 +1554,16 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // For example, <server.list_online_players.lowest[money]> returns the player with the least money currently online.
         // -->
         registerTag("lowest", (attribute, object) -> {
-            String tag = null;
-            if (attribute.hasContext(1)) {
-                tag = attribute.getContext(1);
+            if (!attribute.hasContext(1)) {
+                int index = object.getExtremeIndex(false);
+                return index == -1 ? null : object.objectForms.get(index);
             }
+            String tag = attribute.getContext(1);
             ObjectTag lowestObj = null;
             BigDecimal lowest = null;
             for (ObjectTag obj : object.objectForms) {
                 ObjectTag actualObj = obj;
-                if (tag != null) {
-                    obj = CoreUtilities.autoAttribTyped(obj, new Attribute(tag, attribute.getScriptEntry(), attribute.context));
-                }
+                obj = CoreUtilities.autoAttribTyped(obj, new Attribute(tag, attribute.getScriptEntry(), attribute.context));
                 String str = obj.toString();
                 if (ArgumentHelper.matchesDouble(str)) {
                     BigDecimal val = new ElementTag(str).asBigDecimal();
@@ -1408,17 +1586,16 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // For example, <server.list_players.highest[money]> returns the player with the most money.
         // -->
         registerTag("highest", (attribute, object) -> {
-            String tag = null;
-            if (attribute.hasContext(1)) {
-                tag = attribute.getContext(1);
+            if (!attribute.hasContext(1)) {
+                int index = object.getExtremeIndex(true);
+                return index == -1 ? null : object.objectForms.get(index);
             }
+            String tag = attribute.getContext(1);
             ObjectTag highestObj = null;
             BigDecimal highest = null;
             for (ObjectTag obj : object.objectForms) {
                 ObjectTag actualObj = obj;
-                if (tag != null) {
-                    obj = CoreUtilities.autoAttribTyped(obj, new Attribute(tag, attribute.getScriptEntry(), attribute.context));
-                }
+                obj = CoreUtilities.autoAttribTyped(obj, new Attribute(tag, attribute.getScriptEntry(), attribute.context));
                 String str = obj.toString();
                 if (ArgumentHelper.matchesDouble(str)) {
                     BigDecimal val = new ElementTag(str).asBigDecimal();
@@ -1439,23 +1616,13 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
         // For example: a list of "3|2|1|10" will return "1|2|3|10".
         // -->
         registerTag("numerical", (attribute, object) -> {
-            ArrayList<String> sortable = new ArrayList<>(object);
-            Collections.sort(sortable, new Comparator<String>() {
-                @Override
-                public int compare(String o1, String o2) {
-                    double value = new ElementTag(o1).asDouble() - new ElementTag(o2).asDouble();
-                    if (value == 0) {
-                        return 0;
-                    }
-                    else if (value > 0) {
-                        return 1;
-                    }
-                    else {
-                        return -1;
-                    }
+            double[] keys = object.getNumericValues().clone();
+            for (int i = 0; i < keys.length; i++) {
+                if (Double.isNaN(keys[i])) {
+                    keys[i] = new ElementTag(object.get(i)).asDouble();
                 }
-            });
-            return new ListTag(sortable);
+            }
+            return object.reorderedCopy(getSortedOrder(keys));
         });
 
         // <--[tag]
@@ -1531,39 +1698,24 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 attribute.echoError("Sort_By_Number must have an input value.");
                 return null;
             }
-            ListTag newlist = new ListTag(object);
             try {
-                Collections.sort(newlist.objectForms, new Comparator<ObjectTag>() {
-                    @Override
-                    public int compare(ObjectTag o1, ObjectTag o2) {
-                        ObjectTag or1 = CoreUtilities.autoAttribTyped(o1, new Attribute(attribute.getContext(1), attribute.getScriptEntry(), attribute.context));
-                        ObjectTag or2 = CoreUtilities.autoAttribTyped(o2, new Attribute(attribute.getContext(1), attribute.getScriptEntry(), attribute.context));
-                        try {
-                            double r1 = Double.parseDouble(or1.toString());
-                            double r2 = Double.parseDouble(or2.toString());
-                            double value = r1 - r2;
-                            if (value == 0) {
-                                return 0;
-                            }
-                            else if (value > 0) {
-                                return 1;
-                            }
-                            else {
-                                return -1;
-                            }
-                        }
-                        catch (NumberFormatException ex) {
-                            attribute.echoError("Invalid non-numerical input to sort_by_number tag: " + or1.toString() + ", " + or2.toString());
-                            return 0;
-                        }
+                double[] keys = new double[object.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    ObjectTag value = CoreUtilities.autoAttribTyped(object.objectForms.get(i), new Attribute(attribute.getContext(1), attribute.getScriptEntry(), attribute.context));
+                    try {
+                        keys[i] = Double.parseDouble(value.toString());
                     }
-                });
-                return new ListTag(newlist.objectForms);
+                    catch (NumberFormatException ex) {
+                        attribute.echoError("Invalid non-numerical input to sort_by_number tag: " + value.toString());
+                        keys[i] = Double.NaN;
+                    }
+                }
+                return object.reorderedCopy(getSortedOrder(keys));
             }
             catch (Exception ex) {
                 Debug.echoError(ex);
             }
-            return newlist;
+            return new ListTag(object);
         });
 
         // <--[tag]
@@ -1619,7 +1771,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                         definitions.addAll(context_send);
                         String[] definition_names = null;
                         try {
-                            definition_names = script.getString("definitions").split("\\|");
+                            definition_names = script.getString(ScriptContainer.DEFINITIONS_PATH).split("\\|");
                         }
                         catch (Exception e) { /* IGNORE */ }
                         for (String definition : definitions) {
@@ -1858,7 +2010,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 }
             }
 
-            return new ElementTag(state);
+            return ElementTag.valueOf(state);
         });
 
         // <--[tag]
@@ -1874,18 +2026,13 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
             }
             ListTag list = getListFor(attribute.getContextObject(1), attribute.context);
             boolean state = false;
-
-            full_set:
-            for (String element : object) {
-                for (String sub_element : list) {
-                    if (element.equalsIgnoreCase(sub_element)) {
-                        state = true;
-                        break full_set;
-                    }
+            for (String sub_element : list) {
+                if (object.indexOfCaseInsensitive(sub_element) != -1) {
+                    state = true;
+                    break;
                 }
             }
-
-            return new ElementTag(state);
+            return ElementTag.valueOf(state);
         });
 
         // <--[tag]
@@ -1908,7 +2055,7 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
                 }
             }
 
-            return new ElementTag(state);
+            return ElementTag.valueOf(state);
         });
 
         // <--[tag]
@@ -1926,15 +2073,13 @@ public class ListTag extends ArrayList<String> implements ObjectTag {
             int gotten = 0;
 
             for (String check : needed) {
-                for (String element : object) {
-                    if (element.equalsIgnoreCase(check)) {
-                        gotten++;
-                        break;
-                    }
+                if (object.indexOfCaseInsensitive(check) == -1) {
+                    break;
                 }
+                gotten++;
             }
 
-            return new ElementTag(gotten == needed.size() && gotten > 0);
+            return ElementTag.valueOf(gotten == needed.size() && gotten > 0);
         });
 
         // <--[tag]
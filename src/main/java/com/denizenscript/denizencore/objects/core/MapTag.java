@@ -120,6 +120,13 @@ public class MapTag implements ObjectTag, Adjustable {
         this.map = new LinkedHashMap<>(map);
     }
 
+    /**
+     * Gets the value for a key, without allocating a StringHolder for the lookup.
+     */
+    public ObjectTag getObject(String key) {
+        return StringHolder.get(map, key);
+    }
+
     @Override
     public MapTag duplicate() {
         MapTag newMap = new MapTag();
@@ -196,7 +203,7 @@ public class MapTag implements ObjectTag, Adjustable {
         // Returns the size of the map - that is, how many key/value pairs are within it.
         // -->
         registerTag("size", (attribute, object) -> {
-            return new ElementTag(object.map.size());
+            return ElementTag.valueOf(object.map.size());
         });
 
         // <--[tag]
@@ -206,7 +213,7 @@ public class MapTag implements ObjectTag, Adjustable {
         // Returns "true" if the map is empty (contains no keys), otherwise "false".
         // -->
         registerTag("is_empty", (attribute, object) -> {
-            return new ElementTag(object.map.isEmpty());
+            return ElementTag.valueOf(object.map.isEmpty());
         });
 
         // <--[tag]
@@ -221,7 +228,7 @@ public class MapTag implements ObjectTag, Adjustable {
                 attribute.echoError("The tag 'MapTag.get' must have an input value.");
                 return null;
             }
-            return object.map.get(new StringHolder(attribute.getContext(1)));
+            return object.getObject(attribute.getContext(1));
         });
 
         // <--[tag]
@@ -124,7 +124,7 @@ public class QueueTag implements ObjectTag, Adjustable {
         // Returns the number of script entries in the queue.
         // -->
         registerTag("size", (attribute, object) -> {
-            return new ElementTag(object.getQueue().script_entries.size());
+            return ElementTag.valueOf(object.getQueue().script_entries.size());
         });
 
         // <--[tag]
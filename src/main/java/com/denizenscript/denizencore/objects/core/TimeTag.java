@@ -188,7 +188,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the year of this TimeTag, like '2020'.
         // -->
         registerTag("year", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.YEAR));
+            return ElementTag.valueOf(object.instant.get(ChronoField.YEAR));
         });
 
         // <--[tag]
@@ -198,7 +198,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the month of this TimeTag, where January is 1 and December is 12.
         // -->
         registerTag("month", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.MONTH_OF_YEAR));
+            return ElementTag.valueOf(object.instant.get(ChronoField.MONTH_OF_YEAR));
         });
 
         // <--[tag]
@@ -218,7 +218,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the day-of-month of this TimeTag, starting at 1.
         // -->
         registerTag("day", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.DAY_OF_MONTH));
+            return ElementTag.valueOf(object.instant.get(ChronoField.DAY_OF_MONTH));
         });
 
         // <--[tag]
@@ -228,7 +228,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the day-of-week of this TimeTag, with Monday as 1 and Sunday as 7 (per ISO standard).
         // -->
         registerTag("day_of_week", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.DAY_OF_WEEK));
+            return ElementTag.valueOf(object.instant.get(ChronoField.DAY_OF_WEEK));
         });
 
         // <--[tag]
@@ -248,7 +248,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the hour-of-day of this TimeTag, from 1 to 24.
         // -->
         registerTag("hour", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.HOUR_OF_DAY));
+            return ElementTag.valueOf(object.instant.get(ChronoField.HOUR_OF_DAY));
         });
 
         // <--[tag]
@@ -258,7 +258,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the minute-of-hour of this TimeTag, from 0 to 59.
         // -->
         registerTag("minute", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.MINUTE_OF_HOUR));
+            return ElementTag.valueOf(object.instant.get(ChronoField.MINUTE_OF_HOUR));
         });
 
         // <--[tag]
@@ -268,7 +268,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the second-of-minute of this TimeTag, from 0 to 59.
         // -->
         registerTag("second", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.SECOND_OF_MINUTE));
+            return ElementTag.valueOf(object.instant.get(ChronoField.SECOND_OF_MINUTE));
         });
 
         // <--[tag]
@@ -278,7 +278,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the millisecond of this TimeTag, from 0 to 999.
         // -->
         registerTag("millisecond", (attribute, object) -> {
-            return new ElementTag(object.instant.get(ChronoField.MILLI_OF_SECOND));
+            return ElementTag.valueOf(object.instant.get(ChronoField.MILLI_OF_SECOND));
         });
 
         // <--[tag]
@@ -288,7 +288,7 @@ public class TimeTag implements ObjectTag, Adjustable {
         // Returns the number of milliseconds between this TimeTag and the Unix Epoch (Jan. 1st 1970).
         // -->
         registerTag("epoch_millis", (attribute, object) -> {
-            return new ElementTag(object.millis());
+            return ElementTag.valueOf(object.millis());
         });
 
         // <--[tag]
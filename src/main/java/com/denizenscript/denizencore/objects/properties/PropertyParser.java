@@ -151,7 +151,39 @@ public class PropertyParser {
 
     public static AsciiMatcher needsEscapingMatcher = new AsciiMatcher("&;[]");
 
+    /**
+     * Object types whose properties only change through mechanisms can implement this to have their properties string
+     * (as returned by getPropertiesString) kept on the object, rather than rebuilt every time the object is identified.
+     * The kept string is cleared whenever a mechanism or property is applied through Adjustable's safeAdjust/safeApplyProperty.
+     * Object types that change their own properties in any other way must call invalidatePropertiesString themselves.
+     */
+    public interface PropertiesStringCache {
+
+        String getCachedPropertiesString();
+
+        void setCachedPropertiesString(String properties);
+    }
+
+    public static void invalidatePropertiesString(ObjectTag object) {
+        if (object instanceof PropertiesStringCache) {
+            ((PropertiesStringCache) object).setCachedPropertiesString(null);
+        }
+    }
+
     public static String getPropertiesString(ObjectTag object) {
+        if (object instanceof PropertiesStringCache) {
+            PropertiesStringCache cache = (PropertiesStringCache) object;
+            String result = cache.getCachedPropertiesString();
+            if (result == null) {
+                result = buildPropertiesString(object);
+                cache.setCachedPropertiesString(result);
+            }
+            return result;
+        }
+        return buildPropertiesString(object);
+    }
+
+    public static String buildPropertiesString(ObjectTag object) {
         ClassPropertiesInfo properties = propertiesByClass.get(object.getObjectTagClass());
         if (properties == null) {
             return "";
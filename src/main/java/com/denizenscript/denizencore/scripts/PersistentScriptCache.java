@@ -0,0 +1,181 @@
+package com.denizenscript.denizencore.scripts;
+
+import com.denizenscript.denizencore.DenizenCore;
+import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.text.StringHolder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Stores the parsed form of script files on disk between server starts, so that unchanged script files don't need to be parsed again at startup.
+ * The cache is tied to the exact DenizenCore version that wrote it, and is ignored entirely if anything about it doesn't match.
+ */
+public class PersistentScriptCache {
+
+    /**
+     * Whether the script cache file should be used. Off by default.
+     */
+    public static boolean enabled = false;
+
+    public static String fileName = "script_cache.bin";
+
+    private static final int MAGIC = 0x44534331;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte TYPE_NULL = 0, TYPE_STRING = 1, TYPE_LIST = 2, TYPE_MAP = 3;
+
+    public static File getFile() {
+        return new File(DenizenCore.getImplementation().getDataFolder(), fileName);
+    }
+
+    /**
+     * Loads all cached script files from disk into the given map.
+     * If the cache file is missing, from a different version, or damaged in any way, nothing is loaded.
+     */
+    static void load(Map<String, ScriptHelper.CachedScriptFile> output) {
+        File file = getFile();
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !DenizenCore.VERSION.equals(readString(buffer))) {
+                if (Debug.showLoading) {
+                    Debug.log("Script cache is from a different version, ignoring it.");
+                }
+                return;
+            }
+            int count = buffer.getInt();
+            Map<String, ScriptHelper.CachedScriptFile> result = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String path = readString(buffer);
+                ScriptHelper.CachedScriptFile cached = new ScriptHelper.CachedScriptFile();
+                cached.contentHash = new byte[buffer.getInt()];
+                buffer.get(cached.contentHash);
+                int nameCount = buffer.getInt();
+                cached.originalNames = new HashMap<>(nameCount * 2);
+                for (int n = 0; n < nameCount; n++) {
+                    cached.originalNames.put(readString(buffer), readString(buffer));
+                }
+                cached.yaml = new YamlConfiguration();
+                cached.yaml.contents = (Map<StringHolder, Object>) readValue(buffer);
+                result.put(path, cached);
+            }
+            output.putAll(result);
+        }
+        catch (Exception ex) {
+            Debug.echoError("Script cache file is damaged and will be rebuilt.");
+            Debug.echoError(ex);
+        }
+    }
+
+    /**
+     * Writes all cached script files to disk, replacing the previous cache file.
+     */
+    static void save(Map<String, ScriptHelper.CachedScriptFile> cache) {
+        File file = getFile();
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, DenizenCore.VERSION);
+                List<Map.Entry<String, ScriptHelper.CachedScriptFile>> entries = new ArrayList<>(cache.entrySet());
+                output.writeInt(entries.size());
+                for (Map.Entry<String, ScriptHelper.CachedScriptFile> entry : entries) {
+                    ScriptHelper.CachedScriptFile cached = entry.getValue();
+                    writeString(output, entry.getKey());
+                    output.writeInt(cached.contentHash.length);
+                    output.write(cached.contentHash);
+                    output.writeInt(cached.originalNames.size());
+                    for (Map.Entry<String, String> name : cached.originalNames.entrySet()) {
+                        writeString(output, name.getKey());
+                        writeString(output, name.getValue());
+                    }
+                    writeValue(output, cached.yaml.contents);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (Exception ex) {
+            Debug.echoError("Failed to save script cache file.");
+            Debug.echoError(ex);
+            tempFile.delete();
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        }
+        else if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            output.writeByte(TYPE_MAP);
+            output.writeInt(map.size());
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                writeString(output, entry.getKey().toString());
+                writeValue(output, entry.getValue());
+            }
+        }
+        else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            output.writeByte(TYPE_LIST);
+            output.writeInt(list.size());
+            for (Object val : list) {
+                writeValue(output, val);
+            }
+        }
+        else {
+            output.writeByte(TYPE_STRING);
+            writeString(output, value.toString());
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(buffer);
+            case TYPE_LIST: {
+                int size = buffer.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            }
+            case TYPE_MAP: {
+                int size = buffer.getInt();
+                Map<StringHolder, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(new StringHolder(readString(buffer)), readValue(buffer));
+                }
+                return map;
+            }
+            default:
+                throw new IllegalStateException("Unknown value type " + type + " in script cache file.");
+        }
+    }
+}
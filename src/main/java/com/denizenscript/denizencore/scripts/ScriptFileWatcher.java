@@ -0,0 +1,186 @@
+package com.denizenscript.denizencore.scripts;
+
+import com.denizenscript.denizencore.DenizenCore;
+import com.denizenscript.denizencore.objects.core.ListTag;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.RepeatingSchedulable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Optionally watches the scripts folder for changed script files, and reloads scripts automatically once edits stop for a moment.
+ * Only the changed files are re-read by the reload, as unchanged files come from the script file cache.
+ */
+public class ScriptFileWatcher {
+
+    /**
+     * How long the script files must go without changes before a reload is started, so that a burst of edits (or a multi-file save) only reloads once.
+     */
+    public static long debounceMillis = 500;
+
+    private static WatchService watchService;
+
+    private static Thread watchThread;
+
+    private static RepeatingSchedulable reloadChecker;
+
+    private static final Map<WatchKey, Path> watchedFolders = new HashMap<>();
+
+    /**
+     * Changed script files, relative to the scripts folder. Guarded by synchronizing on the set.
+     */
+    private static final Set<String> changedFiles = new LinkedHashSet<>();
+
+    private static volatile long lastChangeTime = 0;
+
+    public static boolean isRunning() {
+        return watchService != null;
+    }
+
+    /**
+     * Starts watching the scripts folder, if not already watching.
+     */
+    public static synchronized void start() {
+        if (watchService != null) {
+            return;
+        }
+        Path scriptFolder = DenizenCore.getImplementation().getScriptFolder().toPath();
+        try {
+            watchService = scriptFolder.getFileSystem().newWatchService();
+            registerRecursive(scriptFolder);
+        }
+        catch (IOException ex) {
+            Debug.echoError("Failed to start watching the scripts folder for changes.");
+            Debug.echoError(ex);
+            stop();
+            return;
+        }
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watchLoop(service, scriptFolder), "Denizen Script File Watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        reloadChecker = new RepeatingSchedulable(ScriptFileWatcher::checkForReload, 0.1f);
+        DenizenCore.schedule(reloadChecker);
+    }
+
+    /**
+     * Stops watching the scripts folder, discarding any changes not yet reloaded.
+     */
+    public static synchronized void stop() {
+        if (reloadChecker != null) {
+            reloadChecker.cancel();
+            reloadChecker = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            }
+            catch (IOException ex) {
+                Debug.echoError(ex);
+            }
+            watchService = null;
+        }
+        watchThread = null;
+        synchronized (watchedFolders) {
+            watchedFolders.clear();
+        }
+        synchronized (changedFiles) {
+            changedFiles.clear();
+        }
+    }
+
+    private static void registerRecursive(Path folder) throws IOException {
+        WatchKey key = folder.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        synchronized (watchedFolders) {
+            watchedFolders.put(key, folder);
+        }
+        File[] files = folder.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    registerRecursive(file.toPath());
+                }
+            }
+        }
+    }
+
+    private static boolean isScriptFile(Path path) {
+        String fileName = CoreUtilities.toLowerCase(path.getFileName().toString());
+        return !fileName.startsWith(".") && (fileName.endsWith(".dsc") || fileName.endsWith(".yml"));
+    }
+
+    private static void watchLoop(WatchService service, Path scriptFolder) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            Path folder;
+            synchronized (watchedFolders) {
+                folder = watchedFolders.get(key);
+            }
+            if (folder != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        markChanged("*");
+                        continue;
+                    }
+                    Path path = folder.resolve((Path) event.context());
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                        try {
+                            synchronized (ScriptFileWatcher.class) {
+                                if (watchService == service) {
+                                    registerRecursive(path);
+                                }
+                            }
+                        }
+                        catch (IOException ex) {
+                            Debug.echoError(ex);
+                        }
+                        markChanged(scriptFolder.relativize(path).toString());
+                    }
+                    else if (isScriptFile(path)) {
+                        markChanged(scriptFolder.relativize(path).toString());
+                    }
+                }
+            }
+            if (!key.reset()) {
+                synchronized (watchedFolders) {
+                    watchedFolders.remove(key);
+                }
+            }
+        }
+    }
+
+    private static void markChanged(String file) {
+        synchronized (changedFiles) {
+            changedFiles.add(file.replace('\\', '/'));
+        }
+        lastChangeTime = System.currentTimeMillis();
+    }
+
+    private static void checkForReload() {
+        ListTag files;
+        synchronized (changedFiles) {
+            if (changedFiles.isEmpty() || System.currentTimeMillis() - lastChangeTime < debounceMillis) {
+                return;
+            }
+            files = new ListTag(changedFiles);
+            changedFiles.clear();
+        }
+        Debug.log("Script files changed (" + files.size() + "), reloading scripts...");
+        DenizenCore.reloadScripts(files);
+    }
+}
@@ -9,10 +9,14 @@ import com.denizenscript.denizencore.DenizenCore;
 import java.io.*;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Scanner;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Reloads and retrieves information from the scripts folder.
@@ -21,10 +25,8 @@ public class ScriptHelper {
     public static YamlConfiguration _yamlScripts = null;
 
     public static void reloadScripts() {
-        String concatenated = _concatenateCoreScripts();
-
         try {
-            _yamlScripts = YamlConfiguration.load(concatenated);
+            _yamlScripts = _loadCoreScripts();
         }
         catch (Exception e) {
             hadError = true;
@@ -52,6 +54,13 @@ public class ScriptHelper {
         return hadError;
     }
 
+    /**
+     * Forces the next reload to re-read every script file.
+     */
+    public static void clearFileCache() {
+        fileCache.clear();
+    }
+
     public static void resetError() {
         hadError = false;
     }
@@ -73,8 +82,8 @@ public class ScriptHelper {
         }
     }
 
-    private static HashMap<String, String> scriptSources = new HashMap<>();
-    private static HashMap<String, String> scriptOriginalNames = new HashMap<>();
+    private static Map<String, String> scriptSources = new ConcurrentHashMap<>();
+    private static Map<String, String> scriptOriginalNames = new ConcurrentHashMap<>();
 
     public static String getSource(String script) {
         return scriptSources.get(script.toUpperCase());
@@ -84,55 +93,157 @@ public class ScriptHelper {
         return scriptOriginalNames.get(script.toUpperCase());
     }
 
+    private static final int ESCAPE_NONE = 0, ESCAPE_BRACE = 1, ESCAPE_COMMAND = 2, ESCAPE_KEY = 3;
+
+    /**
+     * Appends one line of script to the result, with null characters replaced by spaces and the escaping for the given mode applied.
+     * If 'linePrefixAt' is not -1, the line number prefix is inserted after the character at that index.
+     */
+    private static void appendScriptLine(StringBuilder result, String input, int start, int end, int escapeMode, int linePrefixAt, int lineNum) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '\0') {
+                result.append(' ');
+                continue;
+            }
+            if (c == ':' && (escapeMode == ESCAPE_BRACE || escapeMode == ESCAPE_COMMAND) && i + 1 < end && (input.charAt(i + 1) == ' ' || input.charAt(i + 1) == '\0')) {
+                result.append("<&co>");
+                if (escapeMode == ESCAPE_BRACE) {
+                    i++;
+                }
+            }
+            else if (c == '#' && (escapeMode == ESCAPE_BRACE || escapeMode == ESCAPE_COMMAND)) {
+                result.append("<&ns>");
+            }
+            else if (c == '&' && escapeMode == ESCAPE_KEY) {
+                result.append("&amp");
+            }
+            else if (c == '.' && escapeMode == ESCAPE_KEY) {
+                result.append("&dot");
+            }
+            else {
+                result.append(c);
+            }
+            if (i == linePrefixAt) {
+                result.append(' ').append(ScriptBuilder.LINE_PREFIX_CHAR).append(lineNum + 1).append(ScriptBuilder.LINE_PREFIX_CHAR);
+            }
+        }
+    }
+
+    /**
+     * Prepares raw script file text to be parsed as YAML: removes comments, escapes characters that YAML would misread,
+     * adds line numbers to script entries, and (if 'trackSources' is set) uppercases and records script container names.
+     * This is a single pass over the text, other than a bulk replacement of tabs and carriage returns when present.
+     */
     public static String clearComments(String filename, String input, boolean trackSources) {
-        StringBuilder result = new StringBuilder(input.length());
-        String[] lines = input.replace("\t", "    ").replace("\r", "").split("\n");
+        return clearComments(filename, input, trackSources, null, null);
+    }
+
+    /**
+     * As above, but also adds the original name of each script container found to 'originalNames' (by uppercased name),
+     * and sends debug output and script errors to 'output' rather than showing them right away, for whichever of those aren't null.
+     */
+    static String clearComments(String filename, String input, boolean trackSources, Map<String, String> originalNames, ScriptLoadOutput output) {
+        if (input.indexOf('\r') != -1) {
+            input = input.replace("\r", "");
+        }
+        if (input.indexOf('\t') != -1) {
+            input = input.replace("\t", "    ");
+        }
+        StringBuilder result = new StringBuilder(input.length() + input.length() / 4);
+        // Trailing empty lines are dropped, as String.split would.
+        int inputEnd = input.length();
+        while (inputEnd > 0 && input.charAt(inputEnd - 1) == '\n') {
+            inputEnd--;
+        }
         boolean hasAnyScript = false;
-        for (int lineNum = 0; lineNum < lines.length; lineNum++) {
-            String trimmedLine = lines[lineNum].trim();
-            String trimStart = lines[lineNum].replaceAll("^[\\s]+", "");
-            if (trackSources && !trimmedLine.startsWith("#") && trimStart.length() == lines[lineNum].length() && trimmedLine.endsWith(":") && trimmedLine.length() > 1) {
-                String name = trimmedLine.substring(0, trimmedLine.length() - 1).replace('\"', '\'').replace("'", "");
-                scriptSources.put(name.toUpperCase(), filename);
-                scriptOriginalNames.put(name.toUpperCase(), name);
-                result.append(name.toUpperCase()).append(":\n");
-                hasAnyScript = true;
-            }
-            else if (!trimmedLine.startsWith("#")) {
-                if (trackSources && !hasAnyScript && trimmedLine.endsWith(":")) {
-                    Debug.echoError("Script '" + filename + "' is broken: script container title has spaces in front.");
-                    hasAnyScript = true;
+        if (inputEnd > 0 || input.isEmpty()) {
+            int lineStart = 0;
+            for (int lineNum = 0; ; lineNum++) {
+                int lineEnd = input.indexOf('\n', lineStart);
+                if (lineEnd == -1 || lineEnd > inputEnd) {
+                    lineEnd = inputEnd;
                 }
-                if ((trimmedLine.startsWith("}") || trimmedLine.startsWith("{") || trimmedLine.startsWith("else")) && !trimmedLine.endsWith(":")) {
-                    result.append(' ').append(lines[lineNum].replace('\0', ' ')
-                            .replace(": ", "<&co>").replace("#", "<&ns>")).append("\n");
+                int trimStart = lineStart;
+                while (trimStart < lineEnd && input.charAt(trimStart) <= ' ') {
+                    trimStart++;
                 }
-                else {
-                    String curLine = lines[lineNum].replace('\0', ' ');
-                    boolean endsColon = trimmedLine.endsWith(":");
-                    boolean startsDash = trimmedLine.startsWith("-");
-                    if (!endsColon && startsDash) {
-                        curLine = curLine.replace(": ", "<&co> ");
-                        curLine = curLine.replace("#", "<&ns>");
+                int trimEnd = lineEnd;
+                while (trimEnd > trimStart && input.charAt(trimEnd - 1) <= ' ') {
+                    trimEnd--;
+                }
+                boolean isComment = trimEnd > trimStart && input.charAt(trimStart) == '#';
+                boolean endsColon = trimEnd > trimStart && input.charAt(trimEnd - 1) == ':';
+                char firstChar = lineStart < lineEnd ? input.charAt(lineStart) : 'x';
+                boolean hasLeadingSpace = firstChar == ' ' || firstChar == '\u000B' || firstChar == '\f';
+                if (trackSources && !isComment && !hasLeadingSpace && endsColon && trimEnd - trimStart > 1) {
+                    String name = input.substring(trimStart, trimEnd - 1).replace('\"', '\'').replace("'", "");
+                    scriptSources.put(name.toUpperCase(), filename);
+                    scriptOriginalNames.put(name.toUpperCase(), name);
+                    if (originalNames != null) {
+                        originalNames.put(name.toUpperCase(), name);
                     }
-                    else if (endsColon && !startsDash) {
-                        if (curLine.contains(".")) {
-                            curLine = curLine.replace("&", "&amp").replace(".", "&dot");
-                            Debug.log("Originally " + trimmedLine + " became " + curLine);
+                    result.append(name.toUpperCase()).append(":\n");
+                    hasAnyScript = true;
+                }
+                else if (!isComment) {
+                    if (trackSources && !hasAnyScript && endsColon) {
+                        String error = "Script '" + filename + "' is broken: script container title has spaces in front.";
+                        if (output != null) {
+                            output.echoError(error);
+                            output.scriptError = true;
+                        }
+                        else {
+                            Debug.echoError(error);
                         }
+                        hasAnyScript = true;
                     }
-                    if (trimmedLine.startsWith("- ") && !trimmedLine.startsWith("- \"") && !trimmedLine.startsWith("- '")) {
-                        int dashIndex = curLine.indexOf('-');
-                        curLine = curLine.substring(0, dashIndex + 1) + " " + ScriptBuilder.LINE_PREFIX_CHAR + (lineNum + 1) + ScriptBuilder.LINE_PREFIX_CHAR + curLine.substring(dashIndex + 1);
+                    char trimFirst = trimEnd > trimStart ? input.charAt(trimStart) : ' ';
+                    if ((trimFirst == '}' || trimFirst == '{' || input.startsWith("else", trimStart)) && !endsColon) {
+                        result.append(' ');
+                        appendScriptLine(result, input, lineStart, lineEnd, ESCAPE_BRACE, -1, lineNum);
                     }
-                    result.append(curLine).append("\n");
+                    else {
+                        boolean startsDash = trimFirst == '-';
+                        int escapeMode = ESCAPE_NONE;
+                        if (!endsColon && startsDash) {
+                            escapeMode = ESCAPE_COMMAND;
+                        }
+                        else if (endsColon && !startsDash) {
+                            int dot = input.indexOf('.', lineStart);
+                            if (dot != -1 && dot < lineEnd) {
+                                escapeMode = ESCAPE_KEY;
+                            }
+                        }
+                        int linePrefixAt = -1;
+                        if (startsDash && trimEnd - trimStart > 1 && input.charAt(trimStart + 1) == ' '
+                                && !(trimEnd - trimStart > 2 && (input.charAt(trimStart + 2) == '"' || input.charAt(trimStart + 2) == '\''))) {
+                            linePrefixAt = trimStart;
+                        }
+                        int resultStart = result.length();
+                        appendScriptLine(result, input, lineStart, lineEnd, escapeMode, linePrefixAt, lineNum);
+                        if (escapeMode == ESCAPE_KEY) {
+                            String message = "Originally " + input.substring(trimStart, trimEnd) + " became " + result.substring(resultStart);
+                            if (output != null) {
+                                output.log(message);
+                            }
+                            else {
+                                Debug.log(message);
+                            }
+                        }
+                    }
+                    result.append('\n');
                 }
-            }
-            else {
-                result.append("\n");
+                else {
+                    result.append('\n');
+                }
+                if (lineEnd >= inputEnd) {
+                    break;
+                }
+                lineStart = lineEnd + 1;
             }
         }
-        result.append("\n");
+        result.append('\n');
         return result.toString();
     }
 
@@ -164,8 +275,154 @@ public class ScriptHelper {
         }
     }
 
-    private static String _concatenateCoreScripts() {
+    /**
+     * Whether script files should be read and parsed on multiple threads during a reload.
+     */
+    public static boolean parallelLoading = true;
+
+    /**
+     * The threads used to load script files when 'parallelLoading' is enabled. Its threads are only started when first needed, and are daemon threads.
+     */
+    private static final ForkJoinPool loadingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The debug output from loading one script file.
+     * Files may be loaded on other threads, so their output is collected here and only shown (and 'hadError' only set) on the thread that started the reload.
+     */
+    static class ScriptLoadOutput {
+
+        final List<Runnable> messages = new ArrayList<>();
+
+        /**
+         * Whether the script itself had an error, in which case the file is not cached.
+         */
+        boolean scriptError = false;
+
+        /**
+         * Whether the file failed to load, in which case 'hadError' will be set.
+         */
+        boolean hadError = false;
+
+        void log(String message) {
+            messages.add(() -> Debug.log(message));
+        }
+
+        void echoError(String message) {
+            messages.add(() -> Debug.echoError(message));
+        }
 
+        void echoError(Throwable ex) {
+            messages.add(() -> Debug.echoError(ex));
+        }
+
+        void show() {
+            for (Runnable message : messages) {
+                message.run();
+            }
+            if (hadError) {
+                ScriptHelper.hadError = true;
+            }
+        }
+    }
+
+    /**
+     * Whether script files that haven't changed since the last reload should be taken from the file cache rather than re-read and re-parsed.
+     */
+    public static boolean incrementalLoading = true;
+
+    static class CachedScriptFile {
+
+        /**
+         * The SHA-256 hash of the file's raw content.
+         */
+        byte[] contentHash;
+
+        YamlConfiguration yaml;
+
+        /**
+         * The original (non-uppercased) name of each container in the file, by container name.
+         */
+        Map<String, String> originalNames;
+    }
+
+    /**
+     * The parsed form of each script file as of the last reload, by absolute path.
+     * Containers are always given a copy, as script containers may modify their own contents.
+     * Files that had any error while loading are never cached, so that the error is shown again on every reload.
+     */
+    static Map<String, CachedScriptFile> fileCache = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the file cache has been changed since it was last loaded from or saved to disk.
+     */
+    private static volatile boolean fileCacheChanged = false;
+
+    private static byte[] hashContent(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static YamlConfiguration loadScriptFile(File folder, File f, ScriptLoadOutput output) {
+        String path = f.getAbsolutePath();
+        String fileName = path.substring(folder.getAbsolutePath().length());
+        try {
+            byte[] content = Files.readAllBytes(f.toPath());
+            byte[] contentHash = null;
+            if (incrementalLoading) {
+                contentHash = hashContent(content);
+                CachedScriptFile cached = fileCache.get(path);
+                if (cached != null && Arrays.equals(cached.contentHash, contentHash)) {
+                    for (StringHolder name : cached.yaml.contents.keySet()) {
+                        scriptSources.put(name.str, path);
+                    }
+                    scriptOriginalNames.putAll(cached.originalNames);
+                    return cached.yaml.copy();
+                }
+            }
+            if (Debug.showLoading) {
+                output.log("Processing '" + fileName + "'... ");
+            }
+            Map<String, String> originalNames = new HashMap<>();
+            String script = clearComments(path, convertStreamToString(new ByteArrayInputStream(content), path.endsWith(".dsc")), true, originalNames, output);
+            YamlConfiguration yaml = YamlConfiguration.load(script);
+            if (yaml != null && !yaml.contents.isEmpty() && !yaml.contents.containsKey(null)) {
+                if (incrementalLoading && !output.scriptError) {
+                    CachedScriptFile cached = new CachedScriptFile();
+                    cached.contentHash = contentHash;
+                    cached.yaml = yaml.copy();
+                    cached.originalNames = new HashMap<>();
+                    for (StringHolder name : yaml.contents.keySet()) {
+                        String originalName = originalNames.get(name.str);
+                        if (originalName != null) {
+                            cached.originalNames.put(name.str, originalName);
+                        }
+                    }
+                    fileCache.put(path, cached);
+                    fileCacheChanged = true;
+                }
+                return yaml;
+            }
+            output.echoError("Woah! Error parsing " + fileName + "! This script has been skipped. No internal error - is the file empty?");
+            output.hadError = true;
+        }
+        catch (Exception e) {
+            output.echoError("Woah! Error parsing " + fileName + "!");
+            output.hadError = true;
+            output.echoError(e);
+        }
+        return null;
+    }
+
+    /**
+     * Parses every script file in the script folder (in parallel when enabled) and merges their script containers together into one configuration.
+     * Debug output from each file is shown in file order on the calling thread once all files are loaded.
+     * Later files override earlier files that define a container of the same name.
+     */
+    private static YamlConfiguration _loadCoreScripts() {
         scriptSources.clear();
         try {
             File file = DenizenCore.getImplementation().getScriptFolder();
@@ -173,41 +430,64 @@ public class ScriptHelper {
             if (!file.exists()) {
                 Debug.echoError("No script folder found, please create one.");
                 hadError = true;
-                return "";
+                return null;
             }
             // Get files using script directory
             List<File> files = CoreUtilities.listDScriptFiles(file);
+            if (incrementalLoading && PersistentScriptCache.enabled && fileCache.isEmpty()) {
+                PersistentScriptCache.load(fileCache);
+            }
             if (files.size() > 0) {
-                StringBuilder sb = new StringBuilder();
-                List<String> scriptNames = new ArrayList<>(files.size() * 2);
-                YamlConfiguration yaml;
-                for (File f : files) {
-                    String fileName = f.getAbsolutePath().substring(file.getAbsolutePath().length());
-                    if (Debug.showLoading) {
-                        Debug.log("Processing '" + fileName + "'... ");
+                YamlConfiguration[] loaded = new YamlConfiguration[files.size()];
+                ScriptLoadOutput[] outputs = new ScriptLoadOutput[files.size()];
+                for (int i = 0; i < outputs.length; i++) {
+                    outputs[i] = new ScriptLoadOutput();
+                }
+                if (parallelLoading) {
+                    List<Callable<Void>> tasks = new ArrayList<>(files.size());
+                    for (int i = 0; i < loaded.length; i++) {
+                        int index = i;
+                        tasks.add(() -> {
+                            loaded[index] = loadScriptFile(file, files.get(index), outputs[index]);
+                            return null;
+                        });
                     }
-                    try {
-                        yaml = loadConfig(f.getAbsolutePath(), new FileInputStream(f));
-                        String saved = yaml != null ? yaml.saveToString(false) : null;
-                        if (saved != null && saved.length() > 0) {
-                            handleListing(yaml, scriptNames);
-                            sb.append(saved).append("\r\n");
-                        }
-                        else {
-                            Debug.echoError("Woah! Error parsing " + fileName + "! This script has been skipped. No internal error - is the file empty?");
-                            hadError = true;
-                        }
+                    for (Future<Void> task : loadingPool.invokeAll(tasks)) {
+                        task.get();
                     }
-                    catch (Exception e) {
-                        Debug.echoError("Woah! Error parsing " + fileName + "!");
-                        hadError = true;
-                        Debug.echoError(e);
+                }
+                else {
+                    for (int i = 0; i < loaded.length; i++) {
+                        loaded[i] = loadScriptFile(file, files.get(i), outputs[i]);
+                    }
+                }
+                for (ScriptLoadOutput output : outputs) {
+                    output.show();
+                }
+                HashSet<String> currentPaths = new HashSet<>(files.size() * 2);
+                for (File f : files) {
+                    currentPaths.add(f.getAbsolutePath());
+                }
+                if (fileCache.keySet().retainAll(currentPaths)) {
+                    fileCacheChanged = true;
+                }
+                if (incrementalLoading && PersistentScriptCache.enabled && fileCacheChanged) {
+                    PersistentScriptCache.save(fileCache);
+                    fileCacheChanged = false;
+                }
+                YamlConfiguration result = new YamlConfiguration();
+                result.contents = new LinkedHashMap<>();
+                List<String> scriptNames = new ArrayList<>(files.size() * 2);
+                for (YamlConfiguration yaml : loaded) {
+                    if (yaml != null) {
+                        handleListing(yaml, scriptNames);
+                        result.contents.putAll(yaml.contents);
                     }
                 }
                 if (Debug.showLoading) {
                     Debug.echoApproval("All scripts loaded!");
                 }
-                return sb.toString();
+                return result.contents.isEmpty() ? null : result;
             }
             else {
                 Debug.echoError("Woah! No scripts in /plugins/Denizen/scripts/ to load!");
@@ -219,7 +499,6 @@ public class ScriptHelper {
             hadError = true;
             Debug.echoError(e);
         }
-
-        return "";
+        return null;
     }
 }
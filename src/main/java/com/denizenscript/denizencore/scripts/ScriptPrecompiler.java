@@ -0,0 +1,88 @@
+package com.denizenscript.denizencore.scripts;
+
+import com.denizenscript.denizencore.DenizenCore;
+import com.denizenscript.denizencore.scripts.containers.ScriptContainer;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.RepeatingSchedulable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Compiles the script paths of all script containers after a reload, a little at a time each tick,
+ * so that the first run of each path doesn't have to build its script entries.
+ */
+public class ScriptPrecompiler {
+
+    /**
+     * Whether script paths should be compiled ahead of time after a reload. Off by default.
+     */
+    public static boolean enabled = false;
+
+    /**
+     * Roughly how many milliseconds of each tick may be spent compiling script paths.
+     */
+    public static long millisPerTick = 5;
+
+    private static class PendingPath {
+
+        ScriptContainer container;
+
+        String path;
+    }
+
+    private static RepeatingSchedulable current = null;
+
+    /**
+     * Starts compiling all script paths of the currently loaded script containers, replacing any pre-compile still in progress from a previous reload.
+     */
+    public static void start() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+        if (!enabled) {
+            return;
+        }
+        ArrayDeque<PendingPath> pending = new ArrayDeque<>();
+        for (ScriptContainer container : new ArrayList<>(ScriptRegistry.getScriptContainers().values())) {
+            for (String path : container.getScriptPaths()) {
+                PendingPath pendingPath = new PendingPath();
+                pendingPath.container = container;
+                pendingPath.path = path;
+                pending.add(pendingPath);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (Debug.showLoading) {
+            Debug.log("Pre-compiling " + pending.size() + " script paths...");
+        }
+        RepeatingSchedulable schedulable = new RepeatingSchedulable(null, 0);
+        schedulable.run = () -> {
+            long end = System.nanoTime() + millisPerTick * 1000000;
+            while (!pending.isEmpty() && System.nanoTime() < end) {
+                PendingPath next = pending.poll();
+                if (ScriptRegistry.getScriptContainers().get(CoreUtilities.toLowerCase(next.container.getName())) != next.container) {
+                    continue;
+                }
+                try {
+                    next.container.getSetFor(next.path);
+                }
+                catch (Exception ex) {
+                    Debug.echoError(ex);
+                }
+            }
+            if (pending.isEmpty()) {
+                schedulable.cancel();
+                if (current == schedulable) {
+                    current = null;
+                }
+            }
+        };
+        current = schedulable;
+        DenizenCore.schedule(schedulable);
+    }
+}
@@ -10,10 +10,67 @@ import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.events.OldEventManager;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ScriptRegistry {
 
-    public static Map<String, ScriptContainer> scriptContainers = new HashMap<>();
+    /**
+     * All loaded script containers, by lowercased name, as of the last completed reload.
+     * A published map is never modified: reloads build a new map and swap it in once complete, so this is always safe to read from any thread.
+     * Prefer 'getScriptContainers', which also gives the thread running a reload the containers loaded so far.
+     */
+    public static volatile Map<String, ScriptContainer> scriptContainers = new HashMap<>();
+
+    /**
+     * Guards all changes to 'scriptContainers' and 'pendingContainers'.
+     */
+    private static final Object containerLock = new Object();
+
+    /**
+     * The container map being built by a reload in progress, if any.
+     * Only the reload thread reads from it, but containers added by other threads during the reload go into it too, so that they're kept when it's published.
+     */
+    private static volatile Map<String, ScriptContainer> pendingContainers = null;
+
+    private static volatile Thread pendingThread = null;
+
+    /**
+     * Gets the map of script containers by lowercased name. This is the published map, or for the thread running a reload, the map being built by that reload.
+     * The returned map must not be modified.
+     */
+    public static Map<String, ScriptContainer> getScriptContainers() {
+        if (Thread.currentThread() == pendingThread) {
+            Map<String, ScriptContainer> pending = pendingContainers;
+            if (pending != null) {
+                return pending;
+            }
+        }
+        return scriptContainers;
+    }
+
+    private static void putContainer(String name, ScriptContainer container) {
+        synchronized (containerLock) {
+            if (pendingContainers != null) {
+                pendingContainers.put(name, container);
+            }
+            else {
+                Map<String, ScriptContainer> newMap = new HashMap<>(scriptContainers);
+                newMap.put(name, container);
+                scriptContainers = newMap;
+            }
+        }
+    }
+
+    private static void publishPendingContainers(boolean keep) {
+        synchronized (containerLock) {
+            if (pendingContainers != null && keep) {
+                scriptContainers = new HashMap<>(pendingContainers);
+            }
+            pendingContainers = null;
+            pendingThread = null;
+        }
+    }
+
     public static Map<String, Class<? extends ScriptContainer>> scriptContainerTypes = new HashMap<>();
 
     public static void _registerType(String typeName, Class<? extends ScriptContainer> scriptContainerClass) {
@@ -29,14 +86,14 @@ public class ScriptRegistry {
     }
 
     public static boolean containsScript(String id) {
-        return scriptContainers.containsKey(CoreUtilities.toLowerCase(id));
+        return getScriptContainers().containsKey(CoreUtilities.toLowerCase(id));
     }
 
     public static boolean containsScript(String id, Class scriptContainerType) {
-        if (!scriptContainers.containsKey(CoreUtilities.toLowerCase(id))) {
+        ScriptContainer script = getScriptContainers().get(CoreUtilities.toLowerCase(id));
+        if (script == null) {
             return false;
         }
-        ScriptContainer script = scriptContainers.get(CoreUtilities.toLowerCase(id));
         String type = null;
         for (Map.Entry<String, Class<? extends ScriptContainer>> entry : scriptContainerTypes.entrySet()) {
             if (entry.getValue() == scriptContainerType) {
@@ -51,11 +108,16 @@ public class ScriptRegistry {
     public static ArrayList<String> toPostLoadAttempt = new ArrayList<>();
 
     public static void postLoadScripts() {
-        for (String scriptName : toPostLoadAttempt) {
-            attemptLoadSingle(scriptName, true);
+        try {
+            for (String scriptName : toPostLoadAttempt) {
+                attemptLoadSingle(scriptName, true);
+            }
+        }
+        finally {
+            toPostLoadAttempt.clear();
+            fullYaml = null;
+            publishPendingContainers(true);
         }
-        toPostLoadAttempt.clear();
-        fullYaml = null;
     }
 
     public static void attemptLoadSingle(String scriptName, boolean shouldErrorOnType) {
@@ -78,7 +140,7 @@ public class ScriptRegistry {
                 Debug.log("Adding script " + scriptName + " as type " + type.toUpperCase());
             }
             try {
-                scriptContainers.put(CoreUtilities.toLowerCase(scriptName), (ScriptContainer) typeClass.getConstructor(YamlConfiguration.class, String.class)
+                putContainer(CoreUtilities.toLowerCase(scriptName), (ScriptContainer) typeClass.getConstructor(YamlConfiguration.class, String.class)
                         .newInstance(ScriptHelper.getScripts().getConfigurationSection(scriptName), scriptName));
             }
             catch (Exception e) {
@@ -94,22 +156,33 @@ public class ScriptRegistry {
 
     public static void buildCoreYamlScriptContainers(YamlConfiguration yamlScripts) {
         fullYaml = yamlScripts;
-        scriptContainers.clear();
-        OldEventManager.world_scripts.clear();
-        OldEventManager.events.clear();
-        DenizenCore.getImplementation().refreshScriptContainers();
-        if (yamlScripts == null) {
-            return;
+        synchronized (containerLock) {
+            pendingContainers = new ConcurrentHashMap<>();
+            pendingThread = Thread.currentThread();
+        }
+        try {
+            OldEventManager.world_scripts.clear();
+            OldEventManager.events.clear();
+            DenizenCore.getImplementation().refreshScriptContainers();
+            if (yamlScripts == null) {
+                return;
+            }
+            Set<StringHolder> scripts = yamlScripts.getKeys(false);
+            for (StringHolder scriptName : scripts) {
+                attemptLoadSingle(scriptName.str, false);
+            }
         }
-        Set<StringHolder> scripts = yamlScripts.getKeys(false);
-        for (StringHolder scriptName : scripts) {
-            attemptLoadSingle(scriptName.str, false);
+        catch (RuntimeException | Error ex) {
+            toPostLoadAttempt.clear();
+            fullYaml = null;
+            publishPendingContainers(false);
+            throw ex;
         }
     }
 
     public static <T extends ScriptContainer> T getScriptContainerAs(String name, Class<T> type) {
         try {
-            ScriptContainer container = scriptContainers.get(CoreUtilities.toLowerCase(name));
+            ScriptContainer container = getScriptContainers().get(CoreUtilities.toLowerCase(name));
             if (container != null) {
                 return type.cast(container);
             }
@@ -124,7 +197,7 @@ public class ScriptRegistry {
     }
 
     public static <T extends ScriptContainer> T getScriptContainer(String name) {
-        ScriptContainer container = scriptContainers.get(CoreUtilities.toLowerCase(name));
+        ScriptContainer container = getScriptContainers().get(CoreUtilities.toLowerCase(name));
         if (container != null) {
             return (T) container;
         }
@@ -4,8 +4,9 @@ import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
 import com.denizenscript.denizencore.objects.Argument;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
 import com.denizenscript.denizencore.scripts.commands.Holdable;
+import com.denizenscript.denizencore.scripts.queues.ScriptQueue;
+import com.denizenscript.denizencore.utilities.SQLConnectionPool;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
-import com.denizenscript.denizencore.utilities.scheduling.AsyncSchedulable;
 import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.objects.core.ElementTag;
@@ -15,23 +16,25 @@ import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.tags.core.EscapeTagBase;
 
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class SQLCommand extends AbstractCommand implements Holdable {
 
     public SQLCommand() {
         setName("sql");
-        setSyntax("sql [id:<ID>] [disconnect/connect:<server> (username:<username>) (password:<password>) (ssl:true/{false})/query:<query>/update:<update>]");
-        setRequiredArguments(2, 5);
+        setSyntax("sql [id:<ID>] [disconnect/connect:<server> (username:<username>) (password:<password>) (ssl:true/{false})/query:<query>/update:<update>] (parameters:<list>)");
+        setRequiredArguments(2, 6);
     }
 
     // <--[command]
     // @Name SQL
-    // @Syntax sql [id:<ID>] [disconnect/connect:<server> (username:<username>) (password:<password>) (ssl:true/{false})/query:<query>/update:<update>]
+    // @Syntax sql [id:<ID>] [disconnect/connect:<server> (username:<username>) (password:<password>) (ssl:true/{false})/query:<query>/update:<update>] (parameters:<list>)
     // @Required 2
-    // @Maximum 5
+    // @Maximum 6
     // @Short Interacts with a MySQL server.
     // @Group core
     //
@@ -42,11 +45,16 @@ public class SQLCommand extends AbstractCommand implements Holdable {
     // When connecting, the server format is IP:Port/Database, EG 'localhost:3306/test'.
     // You can switch whether SSL is used for the connection (defaults to false).
     // Note that when using tag, it is recommended you escape unusual inputs to avoid SQL injection.
+    // Better, use '?' placeholders in the query and give the values as a list with the "parameters" argument,
+    // which are sent to the server separately from the query text and so cannot change the query.
     // The SQL command is merely a wrapper for SQL queries, and further usage details should be gathered from an official
     // MySQL query reference rather than from Denizen command help.
     // SQL connections are not instant - they can take several seconds, or just never connect at all.
     // It is recommended you hold the command by doing "- ~sql ..." rather than just "- sql ..."
     // as this will delay the commands following the SQL command until after the SQL operation is complete.
+    // SQL operations always run off the main thread. If not held, the commands after it run right away,
+    // and any result will not be available to them, though SQL commands from the same queue still run in order.
+    // Each ID keeps a small pool of connections, and reuses prepared statements for query text it has seen before.
     //
     // @Tags
     // <entry[saveName].result> returns a ListTag of all rows from a query or update command, of the form escaped_text/escaped_text|escaped_text/escaped_text
@@ -83,23 +91,105 @@ public class SQLCommand extends AbstractCommand implements Holdable {
     // - narrate <entry[saveName2].result>
     //
     // @Usage
+    // Use to query an SQL server with a value given separately from the query text.
+    // - ~sql id:name "query:SELECT id,column_name1 FROM things WHERE column_name2=?;" parameters:<player.name> save:saveName3
+    // - narrate <entry[saveName3].result>
+    //
+    // @Usage
     // Use to disconnect from an SQL server.
     // - sql disconnect id:name
     // -->
 
-    public static Map<String, Connection> connections = new HashMap<>();
+    /**
+     * The maximum number of open connections per SQL ID.
+     */
+    public static int maxConnectionsPerID = 4;
+
+    public static long borrowTimeoutMillis = 10000;
+
+    public static int statementCacheSize = 64;
+
+    public static Map<String, SQLConnectionPool> connections = new HashMap<>();
+
+    /**
+     * Runs all SQL work off the main thread. Its thread count is kept to the total size of all connection pools (see 'updateExecutorSize'),
+     * as any more threads would only wait for a free connection.
+     */
+    private static ThreadPoolExecutor sqlExecutor;
+
+    /**
+     * The most recent SQL task from each queue, so that a queue's SQL commands run in order even when not waited for.
+     * Only used from the main thread.
+     */
+    private static final Map<ScriptQueue, CompletableFuture<Void>> lastTaskByQueue = new WeakHashMap<>();
+
+    private static ThreadPoolExecutor getExecutor() {
+        if (sqlExecutor == null) {
+            int threads = getExecutorSize();
+            sqlExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+                Thread thread = new Thread(runnable, "Denizen SQL");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sqlExecutor.allowCoreThreadTimeOut(true);
+        }
+        return sqlExecutor;
+    }
+
+    private static int getExecutorSize() {
+        return Math.max(1, connections.size()) * maxConnectionsPerID;
+    }
+
+    /**
+     * Resizes the SQL executor to match the current number of connections.
+     */
+    private static void updateExecutorSize() {
+        if (sqlExecutor == null) {
+            return;
+        }
+        int threads = getExecutorSize();
+        if (threads > sqlExecutor.getMaximumPoolSize()) {
+            sqlExecutor.setMaximumPoolSize(threads);
+            sqlExecutor.setCorePoolSize(threads);
+        }
+        else if (threads < sqlExecutor.getMaximumPoolSize()) {
+            sqlExecutor.setCorePoolSize(threads);
+            sqlExecutor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * Runs the task on the SQL executor, after any earlier SQL task from the same queue.
+     */
+    private static void runAsync(ScriptEntry scriptEntry, Runnable task) {
+        ScriptQueue queue = scriptEntry.getResidingQueue();
+        CompletableFuture<Void> previous = queue == null ? null : lastTaskByQueue.get(queue);
+        CompletableFuture<Void> next;
+        if (previous == null || previous.isDone()) {
+            next = CompletableFuture.runAsync(task, getExecutor());
+        }
+        else {
+            next = previous.handleAsync((result, ex) -> {
+                task.run();
+                return null;
+            }, getExecutor());
+        }
+        if (queue != null) {
+            lastTaskByQueue.put(queue, next);
+        }
+    }
 
     @Override
     public void onDisable() {
-        for (Map.Entry<String, Connection> entry : connections.entrySet()) {
-            try {
-                entry.getValue().close();
-            }
-            catch (SQLException e) {
-                Debug.echoError(e);
-            }
+        for (Map.Entry<String, SQLConnectionPool> entry : connections.entrySet()) {
+            entry.getValue().close();
         }
         connections.clear();
+        lastTaskByQueue.clear();
+        if (sqlExecutor != null) {
+            sqlExecutor.shutdown();
+            sqlExecutor = null;
+        }
     }
 
     @Override
@@ -130,6 +220,10 @@ public class SQLCommand extends AbstractCommand implements Holdable {
                 scriptEntry.addObject("action", new ElementTag("UPDATE"));
                 scriptEntry.addObject("query", arg.asElement());
             }
+            else if (!scriptEntry.hasObject("parameters")
+                    && arg.matchesPrefix("parameters")) {
+                scriptEntry.addObject("parameters", arg.asType(ListTag.class));
+            }
             else if (!scriptEntry.hasObject("username")
                     && arg.matchesPrefix("username")) {
                 scriptEntry.addObject("username", arg.asElement());
@@ -171,6 +265,7 @@ public class SQLCommand extends AbstractCommand implements Holdable {
         final ElementTag ssl = scriptEntry.getElement("ssl");
         final ElementTag sqlID = scriptEntry.getElement("sqlid");
         final ElementTag query = scriptEntry.getElement("query");
+        final ListTag parameters = scriptEntry.getObjectTag("parameters");
 
         if (scriptEntry.dbCallShouldDebug()) {
 
@@ -179,215 +274,188 @@ public class SQLCommand extends AbstractCommand implements Holdable {
                     + (server != null ? server.debug() : "")
                     + (username != null ? username.debug() : "")
                     + (password != null ? ArgumentHelper.debugObj("password", "NotLogged") : "")
-                    + (query != null ? query.debug() : ""));
+                    + (query != null ? query.debug() : "")
+                    + (parameters != null ? parameters.debug() : ""));
 
         }
 
-        if (!action.asString().equalsIgnoreCase("connect") &&
-                (!action.asString().equalsIgnoreCase("query") || !scriptEntry.shouldWaitFor())) {
+        // Held commands are only finished once their work is done or has failed
+        if (!scriptEntry.shouldWaitFor() && !action.asString().equalsIgnoreCase("connect")) {
             scriptEntry.setFinished(true);
         }
 
-        try {
-            if (action.asString().equalsIgnoreCase("connect")) {
-                if (server == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a server!");
-                    return;
-                }
-                if (username == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a username!");
-                    return;
-                }
-                if (password == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a password!");
-                    return;
-                }
-                if (connections.containsKey(sqlID.asString().toUpperCase())) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Already connected to a server with ID '" + sqlID.asString() + "'!");
-                    return;
-                }
-                DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(new Runnable() {
-                    @Override
-                    public void run() {
-                        Connection con = null;
-                        if (Debug.verbose) {
-                            Debug.echoDebug(scriptEntry, "Connecting to " + server.asString());
-                        }
-                        try {
-                            con = getConnection(username.asString(), password.asString(), server.asString(), ssl.asString());
-                        }
-                        catch (final Exception e) {
-                            DenizenCore.schedule(new OneTimeSchedulable(new Runnable() {
-                                @Override
-                                public void run() {
-                                    Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + e.getMessage());
-                                    scriptEntry.setFinished(true);
-                                    if (Debug.verbose) {
-                                        Debug.echoError(scriptEntry.getResidingQueue(), e);
-                                    }
-                                }
-                            }, 0));
-                        }
-                        if (Debug.verbose) {
-                            Debug.echoDebug(scriptEntry, "Connection did not error");
-                        }
-                        final Connection conn = con;
-                        if (con != null) {
-                            DenizenCore.schedule(new OneTimeSchedulable(new Runnable() {
-                                @Override
-                                public void run() {
-                                    connections.put(sqlID.asString().toUpperCase(), conn);
-                                    Debug.echoDebug(scriptEntry, "Successfully connected to " + server);
-                                    scriptEntry.setFinished(true);
-                                }
-                            }, 0));
-                        }
-                        else {
-                            DenizenCore.schedule(new OneTimeSchedulable(new Runnable() {
-                                @Override
-                                public void run() {
-                                    scriptEntry.setFinished(true);
-                                    if (Debug.verbose) {
-                                        Debug.echoDebug(scriptEntry, "Connecting errored!");
-                                    }
-                                }
-                            }, 0));
-                        }
-                    }
-                }, 0)));
+        if (action.asString().equalsIgnoreCase("connect")) {
+            if (server == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a server!");
+                scriptEntry.setFinished(true);
+                return;
             }
-            else if (action.asString().equalsIgnoreCase("disconnect")) {
-                Connection con = connections.get(sqlID.asString().toUpperCase());
-                if (con == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Not connected to server with ID '" + sqlID.asString() + "'!");
-                    return;
-                }
-                con.close();
-                connections.remove(sqlID.asString().toUpperCase());
-                Debug.echoDebug(scriptEntry, "Disconnected from '" + sqlID.asString() + "'.");
+            if (username == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a username!");
+                scriptEntry.setFinished(true);
+                return;
             }
-            else if (action.asString().equalsIgnoreCase("query")) {
-                if (query == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a query!");
-                    return;
+            if (password == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Must specify a password!");
+                scriptEntry.setFinished(true);
+                return;
+            }
+            if (connections.containsKey(sqlID.asString().toUpperCase())) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Already connected to a server with ID '" + sqlID.asString() + "'!");
+                scriptEntry.setFinished(true);
+                return;
+            }
+            SQLConnectionPool pool = createPool(username.asString(), password.asString(), server.asString(), ssl.asString());
+            runAsync(scriptEntry, () -> {
+                if (Debug.verbose) {
+                    Debug.echoDebug(scriptEntry, "Connecting to " + server.asString());
                 }
-                final Connection con = connections.get(sqlID.asString().toUpperCase());
-                if (con == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Not connected to server with ID '" + sqlID.asString() + "'!");
-                    return;
+                try {
+                    // Open the first connection right away, so that connection errors are reported by the connect command.
+                    pool.release(pool.borrow(), false);
                 }
-                Debug.echoDebug(scriptEntry, "Running query " + query.asString());
-                Runnable doQuery = () -> {
-                    try {
-                        Statement statement = con.createStatement();
-                        ResultSet set = statement.executeQuery(query.asString());
-                        ResultSetMetaData rsmd = set.getMetaData();
-                        final int columns = rsmd.getColumnCount();
-                        int count = 0;
-                        ListTag rows = new ListTag();
-                        while (set.next()) {
-                            count++;
-                            StringBuilder current = new StringBuilder();
-                            for (int i = 0; i < columns; i++) {
-                                current.append(EscapeTagBase.escape(set.getString(i + 1))).append("/");
-                            }
-                            rows.add(current.toString());
+                catch (final Exception e) {
+                    pool.close();
+                    DenizenCore.schedule(new OneTimeSchedulable(() -> {
+                        Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + e.getMessage());
+                        scriptEntry.setFinished(true);
+                        if (Debug.verbose) {
+                            Debug.echoError(scriptEntry.getResidingQueue(), e);
                         }
-                        scriptEntry.addObject("result", rows);
-                        final int finalCount = count;
-                        DenizenCore.schedule(new OneTimeSchedulable(new Runnable() {
-                            @Override
-                            public void run() {
-                                Debug.echoDebug(scriptEntry, "Got a query result of " + columns + " columns and " + finalCount + " rows");
-                                scriptEntry.setFinished(true);
-                            }
-                        }, 0));
-                    }
-                    catch (final Exception ex) {
-                        DenizenCore.schedule(new OneTimeSchedulable(() -> {
-                            Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + ex.getMessage());
-                            scriptEntry.setFinished(true);
-                            if (Debug.verbose) {
-                                Debug.echoError(scriptEntry.getResidingQueue(), ex);
-                            }
-                        }, 0));
-                    }
-                };
-                if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(doQuery, 0)));
-                }
-                else {
-                    doQuery.run();
-                }
-            }
-            else if (action.asString().equalsIgnoreCase("update")) {
-                if (query == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Must specify an update query!");
-                    return;
-                }
-                final Connection con = connections.get(sqlID.asString().toUpperCase());
-                if (con == null) {
-                    Debug.echoError(scriptEntry.getResidingQueue(), "Not connected to server with ID '" + sqlID.asString() + "'!");
+                    }, 0));
                     return;
                 }
-                Debug.echoDebug(scriptEntry, "Running update " + query.asString());
-                Runnable doUpdate = () -> {
-                    try {
-                        Statement statement = con.createStatement();
-                        int affected = statement.executeUpdate(query.asString(), Statement.RETURN_GENERATED_KEYS);
-                        scriptEntry.addObject("affected_rows", new ElementTag(affected));
-                        ResultSet set = statement.getGeneratedKeys();
-                        ResultSetMetaData rsmd = set.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        ListTag rows = new ListTag();
-                        while (set.next()) {
-                            StringBuilder current = new StringBuilder();
-                            for (int i = 0; i < columns; i++) {
-                                current.append(EscapeTagBase.escape(set.getString(i + 1))).append("/");
-                            }
-                            rows.add(current.toString());
-                        }
-                        scriptEntry.addObject("result", rows);
-                        DenizenCore.schedule(new OneTimeSchedulable(() -> {
-                            Debug.echoDebug(scriptEntry, "Got a query result of " + columns + " columns");
-                            Debug.echoDebug(scriptEntry, "Updated " + affected + " rows");
-                            scriptEntry.setFinished(true);
-                        }, 0));
+                DenizenCore.schedule(new OneTimeSchedulable(() -> {
+                    if (connections.containsKey(sqlID.asString().toUpperCase())) {
+                        pool.close();
+                        Debug.echoError(scriptEntry.getResidingQueue(), "Already connected to a server with ID '" + sqlID.asString() + "'!");
                     }
-                    catch (Exception ex) {
-                        DenizenCore.schedule(new OneTimeSchedulable(() -> {
-                            Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + ex.getMessage());
-                            if (Debug.verbose) {
-                                Debug.echoError(scriptEntry.getResidingQueue(), ex);
-                            }
-                        }, 0));
+                    else {
+                        connections.put(sqlID.asString().toUpperCase(), pool);
+                        updateExecutorSize();
+                        Debug.echoDebug(scriptEntry, "Successfully connected to " + server);
                     }
-                };
-                if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(doUpdate, 0)));
+                    scriptEntry.setFinished(true);
+                }, 0));
+            });
+        }
+        else if (action.asString().equalsIgnoreCase("disconnect")) {
+            scriptEntry.setFinished(true);
+            SQLConnectionPool pool = connections.remove(sqlID.asString().toUpperCase());
+            if (pool == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Not connected to server with ID '" + sqlID.asString() + "'!");
+                return;
+            }
+            runAsync(scriptEntry, pool::close);
+            updateExecutorSize();
+            Debug.echoDebug(scriptEntry, "Disconnected from '" + sqlID.asString() + "'.");
+        }
+        else if (action.asString().equalsIgnoreCase("query") || action.asString().equalsIgnoreCase("update")) {
+            boolean isUpdate = action.asString().equalsIgnoreCase("update");
+            if (query == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), isUpdate ? "Must specify an update query!" : "Must specify a query!");
+                scriptEntry.setFinished(true);
+                return;
+            }
+            final SQLConnectionPool pool = connections.get(sqlID.asString().toUpperCase());
+            if (pool == null) {
+                Debug.echoError(scriptEntry.getResidingQueue(), "Not connected to server with ID '" + sqlID.asString() + "'!");
+                scriptEntry.setFinished(true);
+                return;
+            }
+            Debug.echoDebug(scriptEntry, (isUpdate ? "Running update " : "Running query ") + query.asString());
+            String sql = query.asString();
+            List<String> parameterValues = parameters == null ? null : new ArrayList<>(parameters);
+            runAsync(scriptEntry, () -> runStatement(scriptEntry, pool, sql, parameterValues, isUpdate));
+        }
+        else {
+            Debug.echoError(scriptEntry.getResidingQueue(), "Unknown action '" + action.asString() + "'");
+            scriptEntry.setFinished(true);
+        }
+    }
+
+    private static ListTag readRows(ResultSet set) throws SQLException {
+        ResultSetMetaData rsmd = set.getMetaData();
+        int columns = rsmd.getColumnCount();
+        ListTag rows = new ListTag();
+        while (set.next()) {
+            StringBuilder current = new StringBuilder();
+            for (int i = 0; i < columns; i++) {
+                current.append(EscapeTagBase.escape(set.getString(i + 1))).append("/");
+            }
+            rows.add(current.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Runs a query or update on the current (SQL executor) thread, and hands the results back to the script entry on the main thread.
+     */
+    private static void runStatement(ScriptEntry scriptEntry, SQLConnectionPool pool, String sql, List<String> parameters, boolean isUpdate) {
+        SQLConnectionPool.PooledConnection connection = null;
+        boolean broken = false;
+        try {
+            connection = pool.borrow();
+            PreparedStatement statement = connection.prepare(sql, isUpdate);
+            if (parameters != null) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setString(i + 1, parameters.get(i));
                 }
-                else {
-                    doUpdate.run();
+            }
+            if (isUpdate) {
+                int affected = statement.executeUpdate();
+                ListTag rows;
+                try (ResultSet set = statement.getGeneratedKeys()) {
+                    rows = readRows(set);
                 }
+                DenizenCore.schedule(new OneTimeSchedulable(() -> {
+                    scriptEntry.addObject("affected_rows", new ElementTag(affected));
+                    scriptEntry.addObject("result", rows);
+                    Debug.echoDebug(scriptEntry, "Got a query result of " + rows.size() + " rows");
+                    Debug.echoDebug(scriptEntry, "Updated " + affected + " rows");
+                    scriptEntry.setFinished(true);
+                }, 0));
             }
             else {
-                Debug.echoError(scriptEntry.getResidingQueue(), "Unknown action '" + action.asString() + "'");
+                ListTag rows;
+                int columns;
+                try (ResultSet set = statement.executeQuery()) {
+                    columns = set.getMetaData().getColumnCount();
+                    rows = readRows(set);
+                }
+                DenizenCore.schedule(new OneTimeSchedulable(() -> {
+                    scriptEntry.addObject("result", rows);
+                    Debug.echoDebug(scriptEntry, "Got a query result of " + columns + " columns and " + rows.size() + " rows");
+                    scriptEntry.setFinished(true);
+                }, 0));
             }
         }
-        catch (SQLException ex) {
-            Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + ex.getMessage());
-            if (Debug.verbose) {
-                Debug.echoError(scriptEntry.getResidingQueue(), ex);
+        catch (final Exception ex) {
+            broken = ex instanceof SQLRecoverableException || ex instanceof SQLNonTransientConnectionException;
+            DenizenCore.schedule(new OneTimeSchedulable(() -> {
+                Debug.echoError(scriptEntry.getResidingQueue(), "SQL Exception: " + ex.getMessage());
+                scriptEntry.setFinished(true);
+                if (Debug.verbose) {
+                    Debug.echoError(scriptEntry.getResidingQueue(), ex);
+                }
+            }, 0));
+        }
+        finally {
+            if (connection != null) {
+                pool.release(connection, broken);
             }
         }
     }
 
-    public Connection getConnection(String userName, String password, String server, String ssl) throws SQLException {
+    public static SQLConnectionPool createPool(String userName, String password, String server, String ssl) {
         Properties connectionProps = new Properties();
         connectionProps.put("user", userName);
         connectionProps.put("password", password);
         connectionProps.put("useSSL", ssl);
         connectionProps.put("LoginTimeout", "7");
-        return DriverManager.getConnection("jdbc:mysql://" + server, connectionProps);
+        SQLConnectionPool pool = new SQLConnectionPool("jdbc:mysql://" + server, connectionProps, maxConnectionsPerID);
+        pool.borrowTimeoutMillis = borrowTimeoutMillis;
+        pool.statementCacheSize = statementCacheSize;
+        return pool;
     }
 }
@@ -8,9 +8,12 @@ import com.denizenscript.denizencore.objects.core.MapTag;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
 import com.denizenscript.denizencore.scripts.commands.Holdable;
 import com.denizenscript.denizencore.tags.TagRunnable;
+import com.denizenscript.denizencore.utilities.BinaryYaml;
+import com.denizenscript.denizencore.utilities.CoalescingFileWriter;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.Deprecations;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import com.denizenscript.denizencore.utilities.YamlPath;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.scheduling.AsyncSchedulable;
 import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
@@ -26,6 +29,7 @@ import org.json.JSONObject;
 import java.io.*;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.*;
 
 public class YamlCommand extends AbstractCommand implements Holdable {
@@ -73,6 +77,10 @@ public class YamlCommand extends AbstractCommand implements Holdable {
     //
     // Note that the '.yml' extension is not automatically appended, and you will have to include that in filenames.
     //
+    // If the "savefile" filename ends with '.ybin', the file is saved in a compact binary format rather than as YAML text.
+    // This is faster to load and save, and smaller on disk, for large data files, but cannot be edited by hand.
+    // "load" automatically recognizes binary files, so loading a '.yml' file and saving it as '.ybin' (or the reverse) converts between the two formats.
+    //
     // All usages of the YAML command must include the "id:" argument. This is any arbitrary name, as plaintext or from a tag,
     // to uniquely and globally identify the YAML object in memory. This ID can only be used by one YAML object at a type.
     // IDs are stored when "create" or "load" arguments are used, and only removed when "unload" is used.
@@ -125,6 +133,19 @@ public class YamlCommand extends AbstractCommand implements Holdable {
 
     Map<String, YamlConfiguration> yamls = new HashMap<>();
 
+    /**
+     * If enabled, 'savefile' hands the file text to a single background writer rather than writing it directly.
+     * Saves of the same file that come in before its previous save was written are combined into one write.
+     */
+    public static boolean writeBehind = false;
+
+    public static final CoalescingFileWriter saveWriter = new CoalescingFileWriter("Denizen YAML Writer");
+
+    @Override
+    public void onDisable() {
+        saveWriter.flush();
+    }
+
     private YamlConfiguration getYaml(String id) {
         if (id == null) {
             Debug.echoError("Trying to get YAML file with NULL ID!");
@@ -363,17 +384,33 @@ public class YamlCommand extends AbstractCommand implements Holdable {
                     @Override
                     public void run() {
                         try {
+                            if (BinaryYaml.isBinaryFile(file)) {
+                                runnableConfigs[0] = BinaryYaml.read(file);
+                                runnableConfigs[0].cacheSavedKeys = true;
+                                if (scriptEntry.shouldWaitFor()) {
+                                    DenizenCore.schedule(new OneTimeSchedulable(onLoadCompleted, 0));
+                                }
+                                else {
+                                    onLoadCompleted.run();
+                                }
+                                return;
+                            }
                             FileInputStream fis = new FileInputStream(file);
-                            String str = ScriptHelper.convertStreamToString(fis);
                             if (fixFormatting.asBoolean()) {
+                                String str = ScriptHelper.convertStreamToString(fis);
                                 str = ScriptHelper.clearComments("", str, false);
                                 Deprecations.yamlFixFormatting.warn(scriptEntry);
+                                runnableConfigs[0] = YamlConfiguration.load(str);
+                            }
+                            else {
+                                Reader reader = ScriptHelper.encoding == null ? new InputStreamReader(fis) : new InputStreamReader(fis, ScriptHelper.encoding);
+                                runnableConfigs[0] = YamlConfiguration.load(new BufferedReader(reader));
                             }
-                            runnableConfigs[0] = YamlConfiguration.load(str);
                             fis.close();
                             if (runnableConfigs[0] == null) {
                                 runnableConfigs[0] = new YamlConfiguration();
                             }
+                            runnableConfigs[0].cacheSavedKeys = true;
                             if (scriptEntry.shouldWaitFor()) {
                                 DenizenCore.schedule(new OneTimeSchedulable(onLoadCompleted, 0));
                             }
@@ -397,6 +434,9 @@ public class YamlCommand extends AbstractCommand implements Holdable {
             case LOADTEXT:
                 String str = rawText.asString();
                 YamlConfiguration config = YamlConfiguration.load(str);
+                if (config != null) {
+                    config.cacheSavedKeys = true;
+                }
                 yamls.remove(id);
                 yamls.put(id, config);
                 scriptEntry.setFinished(true);
@@ -433,8 +473,36 @@ public class YamlCommand extends AbstractCommand implements Holdable {
                         }
                         fileObj.getParentFile().mkdirs();
                         YamlConfiguration yaml = yamls.get(id);
+                        if (CoreUtilities.toLowerCase(filename.asString()).endsWith(BinaryYaml.FILE_EXTENSION)) {
+                            byte[] binary = BinaryYaml.encode(yaml);
+                            yaml.setDirty(false);
+                            if (writeBehind) {
+                                saveWriter.write(fileObj, binary, () -> scriptEntry.setFinished(true));
+                                break;
+                            }
+                            Runnable binarySaveRunnable = () -> {
+                                try {
+                                    Files.write(fileObj.toPath(), binary);
+                                }
+                                catch (IOException e) {
+                                    Debug.echoError(e);
+                                }
+                                scriptEntry.setFinished(true);
+                            };
+                            if (scriptEntry.shouldWaitFor()) {
+                                DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(binarySaveRunnable, 0)));
+                            }
+                            else {
+                                binarySaveRunnable.run();
+                            }
+                            break;
+                        }
                         String outp = yaml.saveToString(false);
                         yaml.setDirty(false);
+                        if (writeBehind) {
+                            saveWriter.write(fileObj, outp, ScriptHelper.encoding == null ? null : ScriptHelper.encoding.charset(), () -> scriptEntry.setFinished(true));
+                            break;
+                        }
                         Runnable saveRunnable = new Runnable() {
                             @Override
                             public void run() {
@@ -644,6 +712,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
             case CREATE:
                 yamls.remove(id);
                 yamlConfiguration = new YamlConfiguration();
+                yamlConfiguration.cacheSavedKeys = true;
                 yamls.put(id.toUpperCase(), yamlConfiguration);
                 break;
         }
@@ -757,7 +826,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
         // Otherwise, returns false.
         // -->
         if (attribute.startsWith("contains") && attribute.hasContext(1)) {
-            event.setReplacedObject(new ElementTag(getYaml(id).contains(attribute.getContext(1))).getObjectAttribute(attribute.fulfill(1)));
+            event.setReplacedObject(ElementTag.valueOf(getYaml(id).contains(YamlPath.cached(attribute.getContext(1)))).getObjectAttribute(attribute.fulfill(1)));
             return;
         }
 
@@ -768,7 +837,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
         // Returns true if the specified path results in a list.
         // -->
         if (attribute.startsWith("is_list") && attribute.hasContext(1)) {
-            event.setReplacedObject(new ElementTag(getYaml(id).isList(attribute.getContext(1))).getObjectAttribute(attribute.fulfill(1)));
+            event.setReplacedObject(ElementTag.valueOf(getYaml(id).isList(YamlPath.cached(attribute.getContext(1)))).getObjectAttribute(attribute.fulfill(1)));
             return;
         }
 
@@ -780,7 +849,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
         // If the key is a list, returns a ListTag instead.
         // -->
         if (attribute.startsWith("read") && attribute.hasContext(1)) {
-            Object obj = getYaml(id).get(attribute.getContext(1));
+            Object obj = getYaml(id).get(YamlPath.cached(attribute.getContext(1)));
             if (obj == null) {
                 return;
             }
@@ -855,7 +924,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
         // Returns whether this YAML object has had changes since the last save or load.
         // -->
         if (attribute.startsWith("has_changes")) {
-            event.setReplacedObject(new ElementTag(getYaml(id).isDirty()).getObjectAttribute(attribute.fulfill(1)));
+            event.setReplacedObject(ElementTag.valueOf(getYaml(id).isDirty()).getObjectAttribute(attribute.fulfill(1)));
             return;
         }
 
@@ -185,7 +185,7 @@ public class ForeachCommand extends BracedCommand {
                     if (scriptEntry.dbCallShouldDebug()) {
                         Debug.echoDebug(scriptEntry, Debug.DebugElement.Header, "Foreach loop " + data.index);
                     }
-                    scriptEntry.getResidingQueue().addDefinition("loop_index", String.valueOf(data.index));
+                    scriptEntry.getResidingQueue().addDefinition("loop_index", ElementTag.valueOf(data.index));
                     scriptEntry.getResidingQueue().addDefinition(as_name.asString(), String.valueOf(data.list.get(data.index - 1)));
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommands(scriptEntry.getOwner()).get(0).value;
                     ScriptEntry callbackEntry = scriptEntry.clone();
@@ -243,7 +243,7 @@ public class ForeachCommand extends BracedCommand {
             callbackEntry.setOwner(scriptEntry);
             bracedCommandsList.add(callbackEntry);
             scriptEntry.getResidingQueue().addDefinition(as_name.asString(), list.get(0));
-            scriptEntry.getResidingQueue().addDefinition("loop_index", "1");
+            scriptEntry.getResidingQueue().addDefinition("loop_index", ElementTag.valueOf(1));
             for (int i = 0; i < bracedCommandsList.size(); i++) {
                 bracedCommandsList.get(i).setInstant(true);
             }
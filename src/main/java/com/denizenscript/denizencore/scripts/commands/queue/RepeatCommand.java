@@ -177,7 +177,7 @@ public class RepeatCommand extends BracedCommand {
                     if (scriptEntry.dbCallShouldDebug()) {
                         Debug.echoDebug(scriptEntry, Debug.DebugElement.Header, "Repeat loop " + data.index);
                     }
-                    scriptEntry.getResidingQueue().addDefinition(as_name.asString(), String.valueOf(data.index));
+                    scriptEntry.getResidingQueue().addDefinition(as_name.asString(), ElementTag.valueOf(data.index));
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommands(scriptEntry.getOwner()).get(0).value;
                     ScriptEntry callbackEntry = scriptEntry.clone();
                     callbackEntry.copyFrom(scriptEntry);
@@ -232,7 +232,7 @@ public class RepeatCommand extends BracedCommand {
             callbackEntry.copyFrom(scriptEntry);
             callbackEntry.setOwner(scriptEntry);
             bracedCommandsList.add(callbackEntry);
-            scriptEntry.getResidingQueue().addDefinition(as_name.asString(), "1");
+            scriptEntry.getResidingQueue().addDefinition(as_name.asString(), ElementTag.valueOf(1));
             for (int i = 0; i < bracedCommandsList.size(); i++) {
                 bracedCommandsList.get(i).setInstant(true);
             }
@@ -171,7 +171,7 @@ public class WhileCommand extends BracedCommand {
                     if (scriptEntry.dbCallShouldDebug()) {
                         Debug.echoDebug(scriptEntry, Debug.DebugElement.Header, "While loop " + data.index);
                     }
-                    scriptEntry.getResidingQueue().addDefinition("loop_index", String.valueOf(data.index));
+                    scriptEntry.getResidingQueue().addDefinition("loop_index", ElementTag.valueOf(data.index));
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommands(scriptEntry.getOwner()).get(0).value;
                     ScriptEntry callbackEntry = scriptEntry.clone();
                     callbackEntry.copyFrom(scriptEntry);
@@ -226,7 +226,7 @@ public class WhileCommand extends BracedCommand {
             callbackEntry.copyFrom(scriptEntry);
             callbackEntry.setOwner(scriptEntry);
             bracedCommandsList.add(callbackEntry);
-            scriptEntry.getResidingQueue().addDefinition("loop_index", "1");
+            scriptEntry.getResidingQueue().addDefinition("loop_index", ElementTag.valueOf(1));
             for (int i = 0; i < bracedCommandsList.size(); i++) {
                 bracedCommandsList.get(i).setInstant(true);
             }
@@ -3,6 +3,7 @@ package com.denizenscript.denizencore.scripts.containers;
 import com.denizenscript.denizencore.scripts.*;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import com.denizenscript.denizencore.utilities.YamlPath;
 import com.denizenscript.denizencore.utilities.debugging.Debuggable;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
@@ -179,15 +180,22 @@ public class ScriptContainer implements Debuggable {
     //
     // -->
 
+    public static final YamlPath TYPE_PATH = new YamlPath("type");
+
+    public static final YamlPath DEBUG_PATH = new YamlPath("debug");
+
+    public static final YamlPath DEFINITIONS_PATH = new YamlPath("definitions");
+
+    public static final YamlPath SPEED_PATH = new YamlPath("speed");
+
     /**
      * Gets the value of the type: node specified in the script container structure.
      *
      * @return the type of container
      */
     public String getContainerType() {
-        return contents.contains("type")
-                ? contents.getString("type").toUpperCase()
-                : null;
+        String type = contents.getString(TYPE_PATH);
+        return type != null ? type.toUpperCase() : null;
     }
 
     /**
@@ -200,16 +208,35 @@ public class ScriptContainer implements Debuggable {
         return contents.contains(path);
     }
 
+    public boolean contains(YamlPath path) {
+        return contents.contains(path);
+    }
+
     public String getString(String path) {
         return contents.getString(path);
     }
 
+    public String getString(YamlPath path) {
+        return contents.getString(path);
+    }
+
     public String getString(String path, String def) {
         return contents.getString(path, def);
     }
 
+    public String getString(YamlPath path, String def) {
+        return contents.getString(path, def);
+    }
+
     public List<String> getStringList(String path) {
-        List<String> strs = contents.getStringList(path);
+        return stripLinePrefixes(contents.getStringList(path));
+    }
+
+    public List<String> getStringList(YamlPath path) {
+        return stripLinePrefixes(contents.getStringList(path));
+    }
+
+    private static List<String> stripLinePrefixes(List<String> strs) {
         if (strs == null) {
             return null;
         }
@@ -277,6 +304,18 @@ public class ScriptContainer implements Debuggable {
 
     private Map<String, ScriptEntrySet> scriptsMap = new HashMap<>();
 
+    /**
+     * Returns the paths within this container that hold script entries, so they can be compiled ahead of time after a reload.
+     * Container types that have script paths other than 'script' should override this to include them.
+     */
+    public List<String> getScriptPaths() {
+        List<String> paths = new ArrayList<>();
+        if (canRunScripts && contains("script")) {
+            paths.add("script");
+        }
+        return paths;
+    }
+
     /////////////
     // DEBUGGABLE
     /////////
@@ -287,11 +326,12 @@ public class ScriptContainer implements Debuggable {
     @Override
     public boolean shouldDebug() {
         if (shouldDebug == null) {
-            if (!contents.contains("debug")) {
+            String debug = contents.getString(DEBUG_PATH);
+            if (debug == null) {
                 shouldDebug = DenizenCore.getImplementation().getDefaultDebugMode();
             }
             else {
-                shouldDebug = !contents.getString("debug").equalsIgnoreCase("false");
+                shouldDebug = !debug.equalsIgnoreCase("false");
             }
         }
         return shouldDebug;
@@ -115,6 +115,22 @@ public class CustomScriptContainer extends ScriptContainer {
         }
     }
 
+    @Override
+    public List<String> getScriptPaths() {
+        List<String> paths = super.getScriptPaths();
+        for (String section : new String[] {"tags", "mechanisms"}) {
+            YamlConfiguration config = getConfigurationSection(section);
+            if (config != null) {
+                for (StringHolder key : config.getKeys(false)) {
+                    if (config.isList(key.str)) {
+                        paths.add(section + "." + key.str);
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
     public boolean hasPath(String path) {
         CustomScriptContainer csc = this;
         while (csc != null) {
@@ -284,8 +284,23 @@ public class TagManager {
             }
             return new ElementTag(pieces.get(0).content);
         }
+        // When the chain starts with a tag that returns an element (like "<[text]><[more]>"), append onto that element,
+        // so that repeatedly building up a large text reuses its buffer rather than copying the whole text every time.
+        ElementTag appendTo = null;
         StringBuilder helpy = new StringBuilder();
-        for (int i = 0; i < pieces.size(); i++) {
+        int start = 0;
+        ParseableTagPiece pzero = pieces.get(0);
+        if (pzero.isTag && !pzero.isError) {
+            ObjectTag firstObject = readSingleTagObject(pzero, context);
+            if (firstObject instanceof ElementTag) {
+                appendTo = (ElementTag) firstObject;
+            }
+            else {
+                helpy.append(firstObject.toString());
+            }
+            start = 1;
+        }
+        for (int i = start; i < pieces.size(); i++) {
             ParseableTagPiece p = pieces.get(i);
             if (p.isError) {
                 Debug.echoError(context.entry != null ? context.entry.getResidingQueue() : null, p.content);
@@ -300,6 +315,9 @@ public class TagManager {
                 helpy.append(p.content);
             }
         }
+        if (appendTo != null) {
+            return appendTo.append(helpy.toString());
+        }
         return new ElementTag(helpy.toString());
     }
 
@@ -68,10 +68,10 @@ public class DefinitionTagBase {
         // -->
         if (atttribute.startsWith("exists")) {
             if (def == null) {
-                event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(false), atttribute.fulfill(1)));
+                event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.FALSE, atttribute.fulfill(1)));
             }
             else {
-                event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(true), atttribute.fulfill(1)));
+                event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.TRUE, atttribute.fulfill(1)));
             }
             return;
         }
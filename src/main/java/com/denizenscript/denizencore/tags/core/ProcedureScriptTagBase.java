@@ -5,6 +5,7 @@ import com.denizenscript.denizencore.objects.core.ListTag;
 import com.denizenscript.denizencore.objects.core.ScriptTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.containers.core.ProcedureScriptContainer;
+import com.denizenscript.denizencore.scripts.containers.ScriptContainer;
 import com.denizenscript.denizencore.scripts.queues.core.InstantQueue;
 import com.denizenscript.denizencore.tags.Attribute;
 import com.denizenscript.denizencore.tags.ReplaceableTagEvent;
@@ -105,8 +106,9 @@ public class ProcedureScriptTagBase {
             int x = 1;
             ListTag definitions = new ListTag(event.getTypeContext());
             List<String> definition_names = null;
-            if (script.getContainer().getContents().contains("definitions")) {
-                definition_names = CoreUtilities.split(script.getContainer().getString("definitions"), '|');
+            String definitionNames = script.getContainer().getString(ScriptContainer.DEFINITIONS_PATH);
+            if (definitionNames != null) {
+                definition_names = CoreUtilities.split(definitionNames, '|');
             }
             for (String definition : definitions) {
                 String name = definition_names != null && definition_names.size() >= x ?
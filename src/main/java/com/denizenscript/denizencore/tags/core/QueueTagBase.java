@@ -69,7 +69,7 @@ public class QueueTagBase {
         // -->
         if (attribute.startsWith("exists")
                 && attribute.hasContext(1)) {
-            event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(ScriptQueue.queueExists(attribute.getContext(1))),
+            event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(ScriptQueue.queueExists(attribute.getContext(1))),
                     attribute.fulfill(1)));
             return;
         }
@@ -286,35 +286,35 @@ public class UtilTagBase {
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("year")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.YEAR))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.YEAR))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("month")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.MONTH) + 1)
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.MONTH) + 1)
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("week")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.WEEK_OF_YEAR))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.WEEK_OF_YEAR))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("day_of_week")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.DAY_OF_WEEK))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.DAY_OF_WEEK))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("day")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.DAY_OF_MONTH))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.DAY_OF_MONTH))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("hour")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.HOUR_OF_DAY))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.HOUR_OF_DAY))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("minute")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.MINUTE))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.MINUTE))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("second")) {
-                    event.setReplacedObject(CoreUtilities.autoAttrib(new ElementTag(calendar.get(Calendar.SECOND))
+                    event.setReplacedObject(CoreUtilities.autoAttrib(ElementTag.valueOf(calendar.get(Calendar.SECOND))
                             , attribute.fulfill(1)));
                 }
                 else if (attribute.startsWith("duration")) {
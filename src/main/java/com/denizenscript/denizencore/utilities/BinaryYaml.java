@@ -0,0 +1,189 @@
+package com.denizenscript.denizencore.utilities;
+
+import com.denizenscript.denizencore.utilities.text.StringHolder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * A compact binary alternative to YAML text for storing YamlConfiguration data.
+ * Every distinct string (key or value) is stored once in a string table, followed by the value tree, which refers to strings by their index in the table.
+ * Files are always decoded in full, as a YamlConfiguration holds its entire contents in memory.
+ */
+public class BinaryYaml {
+
+    public static final String FILE_EXTENSION = ".ybin";
+
+    private static final int MAGIC = 0x44594231;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte TYPE_NULL = 0, TYPE_STRING = 1, TYPE_LIST = 2, TYPE_MAP = 3;
+
+    private static class ByteWriter extends ByteArrayOutputStream {
+
+        public ByteWriter(int size) {
+            super(size);
+        }
+
+        public void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        public void appendTo(ByteWriter other) {
+            other.write(buf, 0, count);
+        }
+    }
+
+    /**
+     * Returns whether the file is in the binary format (as opposed to YAML text).
+     */
+    public static boolean isBinaryFile(File file) {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            return file.length() >= 8 && input.readInt() == MAGIC;
+        }
+        catch (IOException ex) {
+            return false;
+        }
+    }
+
+    public static byte[] encode(YamlConfiguration config) {
+        LinkedHashMap<String, Integer> stringTable = new LinkedHashMap<>();
+        ByteWriter body = new ByteWriter(4096);
+        encodeValue(body, config.contents, stringTable);
+        ByteWriter output = new ByteWriter(body.size() + stringTable.size() * 16 + 16);
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(stringTable.size());
+        for (String str : stringTable.keySet()) {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes, 0, bytes.length);
+        }
+        body.appendTo(output);
+        return output.toByteArray();
+    }
+
+    private static int stringIndex(String str, Map<String, Integer> stringTable) {
+        Integer index = stringTable.get(str);
+        if (index == null) {
+            index = stringTable.size();
+            stringTable.put(str, index);
+        }
+        return index;
+    }
+
+    private static void encodeValue(ByteWriter output, Object value, Map<String, Integer> stringTable) {
+        if (value == null) {
+            output.write(TYPE_NULL);
+        }
+        else if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            output.write(TYPE_MAP);
+            output.writeInt(map.size());
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                output.writeInt(stringIndex(String.valueOf(entry.getKey()), stringTable));
+                encodeValue(output, entry.getValue(), stringTable);
+            }
+        }
+        else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            output.write(TYPE_LIST);
+            output.writeInt(list.size());
+            for (Object val : list) {
+                encodeValue(output, val, stringTable);
+            }
+        }
+        else {
+            output.write(TYPE_STRING);
+            output.writeInt(stringIndex(value.toString(), stringTable));
+        }
+    }
+
+    /**
+     * Decodes binary data, starting with the string table, which is decoded in full up front.
+     */
+    private static class Reader {
+
+        ByteBuffer buffer;
+
+        String[] strings;
+
+        Reader(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary YAML file.");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported binary YAML format version " + version + ".");
+            }
+            int count = buffer.getInt();
+            strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        String getString(int index) throws IOException {
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Invalid binary YAML string index " + index + ".");
+            }
+            return strings[index];
+        }
+
+        Object readValue() throws IOException {
+            byte type = buffer.get();
+            switch (type) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_STRING:
+                    return getString(buffer.getInt());
+                case TYPE_LIST: {
+                    int size = buffer.getInt();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case TYPE_MAP: {
+                    int size = buffer.getInt();
+                    Map<StringHolder, Object> map = new LinkedHashMap<>(size * 2);
+                    for (int i = 0; i < size; i++) {
+                        StringHolder key = new StringHolder(getString(buffer.getInt()));
+                        map.put(key, readValue());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IOException("Invalid binary YAML value type " + type + ".");
+            }
+        }
+    }
+
+    public static YamlConfiguration decode(ByteBuffer buffer) throws IOException {
+        Object root = new Reader(buffer).readValue();
+        if (!(root instanceof Map)) {
+            throw new IOException("Binary YAML root is not a map.");
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        config.contents = (Map<StringHolder, Object>) root;
+        return config;
+    }
+
+    /**
+     * Reads a full binary file into a YamlConfiguration.
+     */
+    public static YamlConfiguration read(File file) throws IOException {
+        return decode(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+}
@@ -0,0 +1,172 @@
+package com.denizenscript.denizencore.utilities;
+
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes files on a single background thread.
+ * If a file is queued again before its previous write has started, the two are combined into one write of the newer contents.
+ * Files are written to a temporary file first and then moved into place, so a file is never left half-written.
+ */
+public class CoalescingFileWriter {
+
+    private static class PendingWrite {
+
+        File file;
+
+        String content;
+
+        Charset charset;
+
+        byte[] bytes;
+
+        List<Runnable> onComplete = new ArrayList<>(1);
+    }
+
+    private final LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+
+    private final ExecutorService executor;
+
+    public long writesCompleted = 0;
+
+    public long writesCoalesced = 0;
+
+    public long totalWriteNanos = 0;
+
+    public long lastWriteNanos = 0;
+
+    public CoalescingFileWriter(String threadName) {
+        executor = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the file to be written with the given contents.
+     * The optional 'onComplete' runnable is called from the writer thread once the file has been written (or failed to write).
+     */
+    public void write(File file, String content, Charset charset, Runnable onComplete) {
+        queue(file, content, charset, null, onComplete);
+    }
+
+    /**
+     * Queues the file to be written with the given raw bytes.
+     * The optional 'onComplete' runnable is called from the writer thread once the file has been written (or failed to write).
+     */
+    public void write(File file, byte[] bytes, Runnable onComplete) {
+        queue(file, null, null, bytes, onComplete);
+    }
+
+    private void queue(File file, String content, Charset charset, byte[] bytes, Runnable onComplete) {
+        String key = file.getAbsolutePath();
+        synchronized (pending) {
+            PendingWrite existing = pending.get(key);
+            if (existing != null) {
+                existing.content = content;
+                existing.charset = charset;
+                existing.bytes = bytes;
+                if (onComplete != null) {
+                    existing.onComplete.add(onComplete);
+                }
+                writesCoalesced++;
+                return;
+            }
+            PendingWrite write = new PendingWrite();
+            write.file = file;
+            write.content = content;
+            write.charset = charset;
+            write.bytes = bytes;
+            if (onComplete != null) {
+                write.onComplete.add(onComplete);
+            }
+            pending.put(key, write);
+        }
+        executor.execute(() -> process(key));
+    }
+
+    /**
+     * Returns the number of files waiting to be written.
+     */
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Returns the average time taken to write a file, in milliseconds.
+     */
+    public double getAverageWriteMillis() {
+        synchronized (pending) {
+            return writesCompleted == 0 ? 0 : (totalWriteNanos / (double) writesCompleted) / 1000000.0;
+        }
+    }
+
+    /**
+     * Waits until every file queued so far has been written.
+     */
+    public void flush() {
+        try {
+            executor.submit(() -> { }).get();
+        }
+        catch (Exception ex) {
+            Debug.echoError(ex);
+        }
+    }
+
+    private void process(String key) {
+        PendingWrite write;
+        synchronized (pending) {
+            write = pending.remove(key);
+        }
+        if (write == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        File tempFile = new File(write.file.getPath() + ".tmp");
+        try {
+            if (write.bytes != null) {
+                try (OutputStream output = new FileOutputStream(tempFile)) {
+                    output.write(write.bytes);
+                }
+            }
+            else {
+                try (Writer writer = write.charset == null ? new OutputStreamWriter(new FileOutputStream(tempFile)) : new OutputStreamWriter(new FileOutputStream(tempFile), write.charset)) {
+                    writer.write(write.content);
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), write.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), write.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (Exception ex) {
+            Debug.echoError("Failed to write file '" + write.file.getPath() + "'.");
+            Debug.echoError(ex);
+            tempFile.delete();
+        }
+        long time = System.nanoTime() - start;
+        synchronized (pending) {
+            writesCompleted++;
+            totalWriteNanos += time;
+            lastWriteNanos = time;
+        }
+        for (Runnable runnable : write.onComplete) {
+            runnable.run();
+        }
+    }
+}
@@ -503,8 +503,20 @@ public class CoreUtilities {
     }
 
     public static String toLowerCase(String input) {
+        int len = input.length();
+        int first = 0;
+        while (first < len) {
+            char c = input.charAt(first);
+            if (c >= 'A' && c <= 'Z') {
+                break;
+            }
+            first++;
+        }
+        if (first == len) {
+            return input;
+        }
         char[] data = input.toCharArray();
-        for (int i = 0; i < data.length; i++) {
+        for (int i = first; i < data.length; i++) {
             if (data[i] >= 'A' && data[i] <= 'Z') {
                 data[i] -= 'A' - 'a';
             }
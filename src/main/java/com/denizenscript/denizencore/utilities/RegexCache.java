@@ -0,0 +1,81 @@
+package com.denizenscript.denizencore.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, thread-safe, least-recently-used cache of compiled regex patterns.
+ * Shared by any tag or event matcher that would otherwise call Pattern.compile on every evaluation.
+ */
+public class RegexCache {
+
+    public static int maxSize = 1024;
+
+    private static final class PatternMap extends LinkedHashMap<String, Pattern> {
+
+        public PatternMap() {
+            super(64, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final PatternMap patterns = new PatternMap();
+
+    private static final PatternMap caseInsensitivePatterns = new PatternMap();
+
+    /**
+     * Gets the compiled form of a regex, compiling it only if it isn't already in the cache.
+     */
+    public static Pattern getPattern(String regex) {
+        return getPattern(regex, 0);
+    }
+
+    /**
+     * Gets the compiled form of a regex with the given flags.
+     * Only no flags or only Pattern.CASE_INSENSITIVE are cached, any other flags will always compile a new pattern.
+     */
+    public static Pattern getPattern(String regex, int flags) {
+        PatternMap map;
+        if (flags == 0) {
+            map = patterns;
+        }
+        else if (flags == Pattern.CASE_INSENSITIVE) {
+            map = caseInsensitivePatterns;
+        }
+        else {
+            return Pattern.compile(regex, flags);
+        }
+        synchronized (map) {
+            Pattern result = map.get(regex);
+            if (result != null) {
+                return result;
+            }
+        }
+        Pattern result = Pattern.compile(regex, flags);
+        synchronized (map) {
+            map.put(regex, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets a pattern that matches the exact input text, ignoring case.
+     */
+    public static Pattern getLiteralIgnoreCase(String text) {
+        return getPattern(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+    }
+
+    public static void clear() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+        synchronized (caseInsensitivePatterns) {
+            caseInsensitivePatterns.clear();
+        }
+    }
+}
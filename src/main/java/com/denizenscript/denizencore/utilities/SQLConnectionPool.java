@@ -0,0 +1,181 @@
+package com.denizenscript.denizencore.utilities;
+
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of connections to one SQL server, with a cache of prepared statements on each connection.
+ * Connections are opened as needed up to the maximum size, and checked before reuse if they've been idle for a while.
+ */
+public class SQLConnectionPool {
+
+    public class PooledConnection {
+
+        public final Connection connection;
+
+        public long lastUsed = System.currentTimeMillis();
+
+        private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        public PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Gets a prepared statement for the SQL text, reusing a cached one if this connection has prepared it before.
+         */
+        public PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+            String key = returnGeneratedKeys ? "K" + sql : "N" + sql;
+            PreparedStatement statement = statements.get(key);
+            if (statement == null || statement.isClosed()) {
+                statement = returnGeneratedKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+                statements.put(key, statement);
+            }
+            else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                closeQuietly(statement);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            }
+            catch (SQLException ex) {
+                Debug.echoError(ex);
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        }
+        catch (SQLException ex) {
+            // Ignore
+        }
+    }
+
+    public final String url;
+
+    public final Properties properties;
+
+    public final int maxSize;
+
+    public long borrowTimeoutMillis = 10000;
+
+    /**
+     * Idle connections are checked with 'Connection.isValid' before reuse if they haven't been used for this long.
+     */
+    public long validateAfterMillis = 30000;
+
+    public int statementCacheSize = 64;
+
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+
+    private final Semaphore permits;
+
+    private volatile boolean closed = false;
+
+    public SQLConnectionPool(String url, Properties properties, int maxSize) {
+        this.url = url;
+        this.properties = properties;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Takes a connection from the pool (opening a new one if none are idle), waiting up to 'borrowTimeoutMillis' if all connections are in use.
+     * The connection must be given back with 'release' once done.
+     */
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a free connection.");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a free connection.");
+        }
+        try {
+            while (true) {
+                PooledConnection connection;
+                synchronized (idle) {
+                    connection = idle.pollFirst();
+                }
+                if (connection == null) {
+                    return new PooledConnection(DriverManager.getConnection(url, properties));
+                }
+                boolean valid;
+                try {
+                    valid = System.currentTimeMillis() - connection.lastUsed < validateAfterMillis || connection.connection.isValid(5);
+                }
+                catch (SQLException | RuntimeException ex) {
+                    connection.close();
+                    throw ex;
+                }
+                if (valid) {
+                    return connection;
+                }
+                connection.close();
+            }
+        }
+        catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool. If 'broken' is true (eg after a connection error), the connection is closed rather than reused.
+     */
+    public void release(PooledConnection connection, boolean broken) {
+        synchronized (idle) {
+            if (!broken && !closed) {
+                connection.lastUsed = System.currentTimeMillis();
+                idle.addFirst(connection);
+                permits.release();
+                return;
+            }
+        }
+        connection.close();
+        permits.release();
+    }
+
+    /**
+     * Closes all idle connections. Connections currently borrowed are closed when released.
+     */
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            for (PooledConnection connection : idle) {
+                connection.close();
+            }
+            idle.clear();
+        }
+    }
+}
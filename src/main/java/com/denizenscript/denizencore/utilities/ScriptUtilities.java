@@ -67,8 +67,9 @@ public class ScriptUtilities {
         }
         ScriptQueue queue;
         if (speed == null) {
-            if (container.contains("SPEED")) {
-                speed = DurationTag.valueOf(container.getString("SPEED", "0"));
+            String speedText = container.getString(ScriptContainer.SPEED_PATH);
+            if (speedText != null) {
+                speed = DurationTag.valueOf(speedText);
             }
             if (speed == null) {
                 speed = DurationTag.valueOf(DenizenCore.getImplementation().scriptQueueSpeed());
@@ -84,8 +85,8 @@ public class ScriptUtilities {
         queue.contextSource = context;
         if (definitions != null) {
             List<String> definition_names = null;
-            if (container.contains("definitions")) {
-                String str = container.getString("definitions");
+            String str = container.getString(ScriptContainer.DEFINITIONS_PATH);
+            if (str != null) {
                 definition_names = CoreUtilities.split(str, '|');
             }
             int x = 1;
@@ -9,6 +9,7 @@ import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
+import java.io.Reader;
 import java.util.*;
 
 /**
@@ -22,12 +23,25 @@ public class YamlConfiguration {
         }
     }
 
-    public static YamlConfiguration load(String data) {
+    private static Yaml getLoader() {
         DumperOptions options = new DumperOptions();
         options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         options.setAllowUnicode(true);
-        Yaml yaml = new Yaml(new Constructor(), new Representer(), options, new CustomResolver());
-        Object obj = yaml.load(data);
+        return new Yaml(new Constructor(), new Representer(), options, new CustomResolver());
+    }
+
+    public static YamlConfiguration load(String data) {
+        return fromLoadedObject(getLoader().load(data));
+    }
+
+    /**
+     * Loads YAML directly from a reader, without first reading the full text into memory.
+     */
+    public static YamlConfiguration load(Reader reader) {
+        return fromLoadedObject(getLoader().load(reader));
+    }
+
+    private static YamlConfiguration fromLoadedObject(Object obj) {
         YamlConfiguration config = new YamlConfiguration();
         if (obj == null) {
             return null;
@@ -50,6 +64,14 @@ public class YamlConfiguration {
     public Map<StringHolder, Object> contents;
     boolean dirty;
 
+    /**
+     * If enabled, 'saveToString' keeps the output text for each root key, and only re-serializes root keys that were changed through 'set' since.
+     * Only enable this for a configuration whose contents are exclusively modified through 'set' on the root configuration.
+     */
+    public boolean cacheSavedKeys = false;
+
+    private HashMap<StringHolder, String> savedKeyCache = null;
+
     /**
      * Use StringHolders instead of strings.
      */
@@ -133,6 +155,35 @@ public class YamlConfiguration {
         return new HashMap<>(contents);
     }
 
+    /**
+     * Returns a deep copy of this configuration: all nested maps and lists are copied, so the copy can be modified without affecting the original.
+     */
+    public YamlConfiguration copy() {
+        YamlConfiguration result = new YamlConfiguration();
+        result.contents = (Map<StringHolder, Object>) deepCopy(contents);
+        return result;
+    }
+
+    private static Object deepCopy(Object obj) {
+        if (obj instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) obj;
+            Map<Object, Object> result = new LinkedHashMap<>(map.size() * 2);
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                result.put(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return result;
+        }
+        else if (obj instanceof List) {
+            List<Object> list = (List<Object>) obj;
+            List<Object> result = new ArrayList<>(list.size());
+            for (Object val : list) {
+                result.add(deepCopy(val));
+            }
+            return result;
+        }
+        return obj;
+    }
+
     public void addAll(Map<StringHolder, Object> newContents) {
         contents.putAll(newContents);
     }
@@ -153,22 +204,78 @@ public class YamlConfiguration {
         options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         options.setAllowUnicode(true);
         Yaml yaml = new Yaml(options);
-        String dumped = yaml.dump(reverse(contents, patchLines));
+        String dumped;
+        if (cacheSavedKeys && !patchLines && !contents.isEmpty()) {
+            dumped = saveWithKeyCache(yaml);
+        }
+        else {
+            dumped = yaml.dump(reverse(contents, patchLines));
+        }
         if (Debug.verbose) {
             Debug.log("Outputting " + dumped);
         }
         return dumped;
     }
 
+    /**
+     * Builds the same output as dumping the whole configuration at once, but reuses the cached text of each unchanged root key.
+     */
+    private String saveWithKeyCache(Yaml yaml) {
+        if (savedKeyCache == null) {
+            savedKeyCache = new HashMap<>();
+        }
+        // Visit keys in the same order a full dump of 'reverse' would output them
+        HashMap<String, StringHolder> keyOrder = new HashMap<>();
+        for (StringHolder key : contents.keySet()) {
+            keyOrder.put(key.str, key);
+        }
+        savedKeyCache.keySet().retainAll(contents.keySet());
+        StringBuilder output = new StringBuilder();
+        for (StringHolder key : keyOrder.values()) {
+            String section = savedKeyCache.get(key);
+            if (section == null) {
+                Map<StringHolder, Object> single = new HashMap<>();
+                single.put(key, contents.get(key));
+                section = yaml.dump(reverse(single, false));
+                savedKeyCache.put(key, section);
+            }
+            output.append(section);
+        }
+        return output.toString();
+    }
+
     public Object get(String path) {
-        List<String> parts = CoreUtilities.split(path, '.');
+        StringHolder.Lookup lookup = StringHolder.lookup();
         Map<StringHolder, Object> portion = contents;
-        for (int i = 0; i < parts.size(); i++) {
-            Object oPortion = portion.get(new StringHolder(parts.get(i)));
+        int start = 0;
+        while (true) {
+            int end = path.indexOf('.', start);
+            Object oPortion = portion.get(lookup.set(path, start, end == -1 ? path.length() : end));
+            if (oPortion == null) {
+                return null;
+            }
+            else if (end == -1) {
+                return oPortion;
+            }
+            else if (oPortion instanceof Map) {
+                portion = (Map<StringHolder, Object>) oPortion;
+            }
+            else {
+                return null;
+            }
+            start = end + 1;
+        }
+    }
+
+    public Object get(YamlPath path) {
+        StringHolder[] keys = path.keys;
+        Map<StringHolder, Object> portion = contents;
+        for (int i = 0; i < keys.length; i++) {
+            Object oPortion = portion.get(keys[i]);
             if (oPortion == null) {
                 return null;
             }
-            else if (parts.size() == i + 1) {
+            else if (keys.length == i + 1) {
                 return oPortion;
             }
             else if (oPortion instanceof Map) {
@@ -186,6 +293,9 @@ public class YamlConfiguration {
             o = new HashMap<>(((YamlConfiguration) o).contents);
         }
         List<String> parts = CoreUtilities.split(path, '.');
+        if (savedKeyCache != null) {
+            savedKeyCache.remove(new StringHolder(parts.get(0)));
+        }
         Map<StringHolder, Object> portion = contents;
         for (int i = 0; i < parts.size(); i++) {
             Object oPortion = portion.get(new StringHolder(parts.get(i)));
@@ -242,15 +352,27 @@ public class YamlConfiguration {
         return get(path) != null;
     }
 
+    public boolean contains(YamlPath path) {
+        return get(path) != null;
+    }
+
     public String getString(String path) {
+        return getString(path, null);
+    }
+
+    public String getString(YamlPath path) {
+        return getString(path, null);
+    }
+
+    public String getString(String path, String def) {
         Object o = get(path);
         if (o == null) {
-            return null;
+            return def;
         }
         return o.toString();
     }
 
-    public String getString(String path, String def) {
+    public String getString(YamlPath path, String def) {
         Object o = get(path);
         if (o == null) {
             return def;
@@ -259,21 +381,23 @@ public class YamlConfiguration {
     }
 
     public boolean isList(String path) {
-        Object o = get(path);
-        if (o == null) {
-            return false;
-        }
-        if (!(o instanceof List)) {
-            return false;
-        }
-        return true;
+        return get(path) instanceof List;
+    }
+
+    public boolean isList(YamlPath path) {
+        return get(path) instanceof List;
     }
 
     public List<Object> getList(String path) {
         Object o = get(path);
-        if (o == null) {
+        if (!(o instanceof List)) {
             return null;
         }
+        return (List<Object>) o;
+    }
+
+    public List<Object> getList(YamlPath path) {
+        Object o = get(path);
         if (!(o instanceof List)) {
             return null;
         }
@@ -282,9 +406,14 @@ public class YamlConfiguration {
 
     public List<String> getStringList(String path) {
         Object o = get(path);
-        if (o == null) {
+        if (!(o instanceof List)) {
             return null;
         }
+        return patchListNonsense((List<Object>) o);
+    }
+
+    public List<String> getStringList(YamlPath path) {
+        Object o = get(path);
         if (!(o instanceof List)) {
             return null;
         }
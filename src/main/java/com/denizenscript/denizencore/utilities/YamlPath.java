@@ -0,0 +1,58 @@
+package com.denizenscript.denizencore.utilities;
+
+import com.denizenscript.denizencore.utilities.text.StringHolder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dot-separated YAML key path, split into its keys once so that it can be used for repeated YamlConfiguration lookups without re-parsing.
+ * Use a static final YamlPath for fixed paths read in hot code, or 'cached' for paths that come from script input.
+ */
+public class YamlPath {
+
+    public static int cacheMaxSize = 1024;
+
+    private static final LinkedHashMap<String, YamlPath> cache = new LinkedHashMap<String, YamlPath>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, YamlPath> eldest) {
+            return size() > cacheMaxSize;
+        }
+    };
+
+    /**
+     * Gets the YamlPath for the given path text, reusing a recently used instance if possible.
+     */
+    public static YamlPath cached(String path) {
+        synchronized (cache) {
+            YamlPath result = cache.get(path);
+            if (result == null) {
+                result = new YamlPath(path);
+                cache.put(path, result);
+            }
+            return result;
+        }
+    }
+
+    public final String path;
+
+    /**
+     * The separate keys of the path. This is not public, as the array must never be modified.
+     */
+    final StringHolder[] keys;
+
+    public YamlPath(String path) {
+        this.path = path;
+        List<String> parts = CoreUtilities.split(path, '.');
+        keys = new StringHolder[parts.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new StringHolder(parts.get(i));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
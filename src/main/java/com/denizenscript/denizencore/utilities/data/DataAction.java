@@ -180,7 +180,7 @@ public class DataAction {
                 provider.setValueAt(key, autoDup(inputValue));
                 break;
             case AUTO_SET:
-                provider.setValueAt(key, new ElementTag(true));
+                provider.setValueAt(key, ElementTag.TRUE);
                 break;
             case CLEAR:
                 provider.setValueAt(key, null);
@@ -2,8 +2,85 @@ package com.denizenscript.denizencore.utilities.text;
 
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 
+import java.util.Map;
+
 public class StringHolder {
 
+    /**
+     * A reusable key for looking up part of a string in a StringHolder-keyed map without allocating a StringHolder (or a lowercased copy) for it.
+     * Matches map keys exactly the same way a StringHolder of the same text would.
+     * An instance must only be used by one thread at a time, and is only valid for 'get'/'containsKey' calls, never as a stored key.
+     */
+    public static final class Lookup {
+
+        private String source;
+
+        private int start, end, hash;
+
+        public Lookup set(String source) {
+            return set(source, 0, source.length());
+        }
+
+        public Lookup set(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + lower(source.charAt(i));
+            }
+            hash = h;
+            return this;
+        }
+
+        private static char lower(char c) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof StringHolder)) {
+                return false;
+            }
+            String low = ((StringHolder) obj).low;
+            if (low.length() != end - start) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (lower(source.charAt(i)) != low.charAt(i - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return source.substring(start, end);
+        }
+    }
+
+    private static final ThreadLocal<Lookup> threadLookup = ThreadLocal.withInitial(Lookup::new);
+
+    /**
+     * Gets this thread's reusable Lookup instance. Set it immediately before each map call, as any other code on the thread may reuse it.
+     */
+    public static Lookup lookup() {
+        return threadLookup.get();
+    }
+
+    /**
+     * Gets the value for the given key from a StringHolder-keyed map, without allocating a StringHolder for the key.
+     */
+    public static <T> T get(Map<StringHolder, T> map, String key) {
+        return map.get(lookup().set(key));
+    }
+
     public final String str;
 
     public final String low;